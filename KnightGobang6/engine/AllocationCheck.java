@@ -0,0 +1,79 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * <code>AllocationCheck</code> checks that the search of <code>Engine</code>
+ * allocates no object per node, by the bytes the searching thread allocates as
+ * reported by <code>com.sun.management.ThreadMXBean</code>.
+ * <p>
+ * An <code>Engine</code> with a single search thread and no ponder plays
+ * against itself from a fixed opening, so that the whole search runs on the
+ * calling thread. The first <code>WARM_UP</code> moves are left out, since the
+ * classes are loaded and compiled then. The rest of the moves may only
+ * allocate for their roots, which is a small constant per move, so the check
+ * fails if they allocate more than <code>MAX_BYTES_PER_NODE</code> on average.
+ * <p>
+ * Usage: <code>java AllocationCheck length difficulty moves</code>, which exits
+ * with status <code>1</code> if the check fails.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ */
+public class AllocationCheck {
+    /**
+     * Records the count of moves to warm up with.
+     */
+    private static final int WARM_UP = 4;
+    /**
+     * Records the most bytes a node may allocate on average.
+     */
+    private static final double MAX_BYTES_PER_NODE = 4;
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: java AllocationCheck length difficulty moves");
+            return;
+        }
+        int length = Integer.parseInt(args[0]);
+        int difficulty = Integer.parseInt(args[1]);
+        int moves = Integer.parseInt(args[2]);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalArgumentException("Allocated memory of a thread is not supported.");
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        Engine engine = new Engine(length, difficulty, 1);
+        engine.setPonder(false);
+        int mid = length / 2;
+        int[][] opening = { { mid, mid }, { mid + 1, mid + 2 }, { mid + 2, mid + 1 }, { mid - 1, mid + 1 },
+                { mid + 1, mid - 1 }, { mid + 3, mid + 3 } };
+        for (int i = 0; i < opening.length; i++) {
+            engine.make(Move.of(opening[i][0], opening[i][1], i % 2 + 1));
+        }
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE / 4, 1000000);
+        long thread = Thread.currentThread().threadId();
+        long bytes = 0;
+        long nodes = 0;
+        for (int i = 0; i < WARM_UP + moves; i++) {
+            int color = (opening.length + i) % 2 + 1;
+            long before = bean.getThreadAllocatedBytes(thread);
+            SearchResult result = engine.search(color, limits);
+            long allocated = bean.getThreadAllocatedBytes(thread) - before;
+            if (result.move == Move.NONE) {
+                break;
+            }
+            if (i >= WARM_UP) {
+                bytes += allocated;
+                nodes += result.nodes;
+            }
+            System.out.println("Move " + (i + 1) + ": " + result.nodes + " nodes, " + allocated + " bytes.");
+            engine.make(result.move);
+        }
+        double bytesPerNode = nodes == 0 ? 0 : (double) bytes / nodes;
+        System.out.printf("%d bytes in %d nodes, %.3f bytes per node.%n", bytes, nodes, bytesPerNode);
+        if (bytesPerNode > MAX_BYTES_PER_NODE) {
+            System.out.println("Check failed: more than " + MAX_BYTES_PER_NODE + " bytes per node.");
+            System.exit(1);
+        }
+    }
+}
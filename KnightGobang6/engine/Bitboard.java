@@ -0,0 +1,340 @@
+/**
+ * <code>Bitboard</code> records the situation of each grid of the chessboard
+ * with a bitset for each color.
+ * <p>
+ * Each bitset is a <code>long[]</code> with a word for each x coordinate, whose
+ * <code>y</code>th bit is for the grid <code>(x, y)</code>, so that the
+ * chessboard up to <code>49</code> x <code>49</code> is covered. A shift of the
+ * whole bitset moves all the grids along a <code>Direction</code> or a
+ * <code>Diagram</code> at once, which makes lines and neighbours word-parallel.
+ * <p>
+ * <code>Bitboard</code> is affiliated to <code>Gameboard</code> and
+ * <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Gameboard
+ * @see Engine
+ * @see Direction
+ * @see Diagram
+ */
+public class Bitboard {
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the mask of all the valid bits in a word.
+     */
+    private final long full;
+    /**
+     * Records the bitsets of the chess pieces.
+     * <p>
+     * The <code>1st</code> dimension indicates the color of the chess piece,
+     * <code>0</code> for black, <code>1</code> for white;
+     * <p>
+     * The <code>2nd</code> dimension indicates the x coordinate of the point.
+     */
+    private final long[][] grid;
+    /**
+     * Records the bitsets of the runs to the negative side in a direction, which
+     * is a buffer of the word-parallel methods.
+     */
+    private final long[][] left;
+    /**
+     * Records the bitsets of the runs to the positive side in a direction, which
+     * is a buffer of the word-parallel methods.
+     */
+    private final long[][] right;
+
+    /**
+     * Constructs a new blank <code>Bitboard</code> with the chequer length
+     * <code>length</code>.
+     *
+     * @param length the length of chequer, no more than <code>63</code>
+     */
+    public Bitboard(int length) {
+        if (length <= 0 || length >= 64) {
+            throw new IllegalArgumentException("Illegal length of bitboard: " + length);
+        }
+        this.length = length;
+        this.full = (1L << length) - 1;
+        this.grid = new long[2][length];
+        this.left = new long[6][length];
+        this.right = new long[6][length];
+    }
+
+    /**
+     * Returns the chessboard's length.
+     *
+     * @return length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Sets the color of the grid <code>(x, y)</code> to <code>color</code>.
+     *
+     * @param x     the x coordinate of the point
+     * @param y     the y coordinate of the point
+     * @param color <code>0</code> for blank, <code>1</code> for black,
+     *              <code>2</code> for white
+     */
+    public void set(int x, int y, int color) {
+        long bit = 1L << y;
+        grid[0][x] &= ~bit;
+        grid[1][x] &= ~bit;
+        if (color == 1 || color == 2) {
+            grid[color - 1][x] |= bit;
+        }
+    }
+
+    /**
+     * Gets the color of the grid <code>(x, y)</code>.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>0</code> for blank, <code>1</code> for black, <code>2</code>
+     *         for white, <code>-1</code> for out-of-edged
+     */
+    public int get(int x, int y) {
+        if (x < 0 || x >= length || y < 0 || y >= length) {
+            return -1;
+        }
+        return (int) (grid[0][x] >>> y & 1) | (int) (grid[1][x] >>> y & 1) << 1;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> has already been placed a chess
+     * piece.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is filled, <code>false</code>
+     *         otherwise
+     */
+    public boolean isFilled(int x, int y) {
+        return x >= 0 && x < length && y >= 0 && y < length && (occupied(x) >>> y & 1) != 0;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is reachable via a knight move.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is reachable, <code>false</code>
+     *         otherwise
+     */
+    public boolean isKnight(int x, int y) {
+        long near = bits(y, 2);
+        long far = bits(y, 1);
+        return (occupied(x - 1) & near | occupied(x + 1) & near | occupied(x - 2) & far | occupied(x + 2) & far) != 0;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is nearby via a direct move.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is nearby, <code>false</code>
+     *         otherwise
+     */
+    public boolean isNear(int x, int y) {
+        long side = bits(y, 1);
+        long line = side | 1L << y;
+        return (occupied(x - 1) & line | occupied(x) & side | occupied(x + 1) & line) != 0;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is nearby via 2 direct moves in the
+     * same direction.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is nearby, <code>false</code>
+     *         otherwise
+     */
+    public boolean isNearby(int x, int y) {
+        long self = 1L << y;
+        long far = bits(y, 2) | self;
+        long near = bits(y, 1) | self;
+        long side = bits(y, 1) | bits(y, 2);
+        return (occupied(x - 2) & far | occupied(x - 1) & near | occupied(x) & side | occupied(x + 1) & near
+                | occupied(x + 2) & far) != 0;
+    }
+
+    /**
+     * Gets the line of <code>color</code> through the grid <code>(x, y)</code> in
+     * the direction <code>dir</code>.
+     * <p>
+     * The <code>(6 + k)</code>th bit of the line is for the grid moved
+     * <code>k</code> along <code>dir</code> from <code>(x, y)</code>, where
+     * <code>k</code> is from <code>-6</code> to <code>6</code>.
+     *
+     * @param x     the x coordinate of the point
+     * @param y     the y coordinate of the point
+     * @param dir   appointed direction
+     * @param color <code>0</code> for blank, <code>1</code> for black,
+     *              <code>2</code> for white
+     * @return the line mask
+     */
+    public int getLine(int x, int y, Direction dir, int color) {
+        int line = 0;
+        for (int k = -6; k <= 6; k++) {
+            if (get(x + dir.x * k, y + dir.y * k) == color) {
+                line |= 1 << (6 + k);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Checks if there is a continuous <code>6</code> of the chess piece on the
+     * grid <code>(x, y)</code> through it.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if there is a continuous <code>6</code>,
+     *         <code>false</code> otherwise
+     */
+    public boolean isCons6(int x, int y) {
+        int color = get(x, y);
+        if (color <= 0) {
+            return false;
+        }
+        for (Direction dir : Direction.get4Directions()) {
+            int line = getLine(x, y, dir, color);
+            int run = Integer.numberOfTrailingZeros(~(line >>> 6)) + Integer.numberOfLeadingZeros(~(line << 25)) - 1;
+            if (run >= 6) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets all the blank grids which can construct a continuous <code>6</code>
+     * via a single move of <code>color</code> into <code>mask</code>.
+     *
+     * @param color the constructing color side
+     * @param mask  the bitset to receive the grids
+     */
+    public void getCons6(int color, long[] mask) {
+        long[] stones = grid[color - 1];
+        for (int x = 0; x < length; x++) {
+            mask[x] = 0;
+        }
+        for (Direction dir : Direction.get4Directions()) {
+            for (int x = 0; x < length; x++) {
+                left[0][x] = full;
+                right[0][x] = full;
+            }
+            for (int k = 1; k <= 5; k++) {
+                for (int x = 0; x < length; x++) {
+                    left[k][x] = left[k - 1][x] & shifted(stones, x, dir.x * k, dir.y * k);
+                    right[k][x] = right[k - 1][x] & shifted(stones, x, -dir.x * k, -dir.y * k);
+                }
+            }
+            for (int x = 0; x < length; x++) {
+                long word = 0;
+                for (int k = 0; k <= 5; k++) {
+                    word |= left[k][x] & right[5 - k][x];
+                }
+                mask[x] |= word & ~occupied(x);
+            }
+        }
+    }
+
+    /**
+     * Gets all the blank grids which are nearby via 1 or 2 direct moves in the
+     * same direction into <code>mask</code>.
+     *
+     * @param mask the bitset to receive the grids
+     */
+    public void getNearby(long[] mask) {
+        for (int x = 0; x < length; x++) {
+            long word = 0;
+            for (Direction dir : Direction.get8Directions()) {
+                word |= shifted(grid[0], x, dir.x, dir.y) | shifted(grid[1], x, dir.x, dir.y);
+                word |= shifted(grid[0], x, 2 * dir.x, 2 * dir.y) | shifted(grid[1], x, 2 * dir.x, 2 * dir.y);
+            }
+            mask[x] = word & ~occupied(x);
+        }
+    }
+
+    /**
+     * Gets all the blank grids which are reachable via a knight move into
+     * <code>mask</code>.
+     *
+     * @param mask the bitset to receive the grids
+     */
+    public void getKnights(long[] mask) {
+        for (int x = 0; x < length; x++) {
+            long word = 0;
+            for (Diagram dia : Diagram.get8Diagrams()) {
+                word |= shifted(grid[0], x, dia.x, dia.y) | shifted(grid[1], x, dia.x, dia.y);
+            }
+            mask[x] = word & ~occupied(x);
+        }
+    }
+
+    /**
+     * Checks if there is any grid in <code>mask</code>.
+     *
+     * @param mask the bitset of the grids
+     * @return <code>true</code> if there is any grid, <code>false</code> otherwise
+     */
+    public boolean any(long[] mask) {
+        for (int x = 0; x < length; x++) {
+            if (mask[x] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the word of occupied grids in x coordinate <code>x</code>, or
+     * <code>0</code> if it is out-of-edged.
+     *
+     * @param x the x coordinate
+     * @return the word of occupied grids
+     */
+    private long occupied(int x) {
+        return x < 0 || x >= length ? 0 : grid[0][x] | grid[1][x];
+    }
+
+    /**
+     * Returns the word in x coordinate <code>x</code> of the bitset
+     * <code>bitset</code> after it is shifted by <code>(dx, dy)</code>, that is,
+     * the grid <code>(x, y)</code> of the result is the grid
+     * <code>(x - dx, y - dy)</code> of the origin.
+     *
+     * @param bitset the origin bitset
+     * @param x      the x coordinate
+     * @param dx     the x displacement
+     * @param dy     the y displacement
+     * @return the shifted word
+     */
+    private long shifted(long[] bitset, int x, int dx, int dy) {
+        int sx = x - dx;
+        if (sx < 0 || sx >= length) {
+            return 0;
+        }
+        long word = bitset[sx];
+        return (dy >= 0 ? word << dy : word >>> -dy) & full;
+    }
+
+    /**
+     * Returns the bits <code>d</code> away from the bit <code>y</code> on both
+     * sides, which are inside the edge.
+     *
+     * @param y the base bit
+     * @param d the distance
+     * @return the bits
+     */
+    private long bits(int y, int d) {
+        return (y + d < length ? 1L << (y + d) : 0) | (y - d >= 0 ? 1L << (y - d) : 0);
+    }
+}
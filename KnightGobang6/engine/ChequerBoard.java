@@ -0,0 +1,253 @@
+/**
+ * <code>ChequerBoard</code> records the whole situation of the chessboard for
+ * <code>Engine</code>'s evaluate functions, and changes it only via a move
+ * or an undo.
+ * <p>
+ * A move updates the chess pieces, the zobrist key, the frontier of reachable
+ * grids and the score together, and pushes its undo record onto a preallocated
+ * stack. An undo pops the record and reverts all of them, so neither of them
+ * allocates any memory. The record of a move is packed in an <code>int</code>
+ * as <code>Move</code>.
+ * <p>
+ * <code>ChequerBoard</code> is affiliated to <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see Bitboard
+ * @see ChequerStatus
+ * @see ChequerFrontier
+ * @see ChequerEvaluation
+ * @see Move
+ */
+public class ChequerBoard {
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the situation of each grid of the chessboard in bitsets.
+     */
+    private final Bitboard chequer;
+    /**
+     * Records the zobrist key of the chessboard.
+     */
+    private final ChequerStatus status;
+    /**
+     * Records the grids those are in situations of reachable blank.
+     */
+    private final ChequerFrontier frontier;
+    /**
+     * Records the score of the whole chessboard.
+     */
+    private final ChequerEvaluation evaluation;
+    /**
+     * Records the undo records of all the moves, the last one on the top.
+     */
+    private final int[] undo;
+    /**
+     * Records the count of moves on the chessboard.
+     */
+    private int step;
+
+    /**
+     * Constructs a new blank <code>ChequerBoard</code> with the chequer length
+     * <code>length</code>.
+     *
+     * @param length the length of chequer
+     */
+    public ChequerBoard(int length) {
+        this.length = length;
+        this.chequer = new Bitboard(length);
+        this.status = new ChequerStatus(length);
+        this.frontier = new ChequerFrontier(length);
+        this.evaluation = new ChequerEvaluation(chequer);
+        this.undo = new int[length * length];
+        this.step = 0;
+    }
+
+    /**
+     * Returns the chessboard's length.
+     *
+     * @return length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the bitsets of the chess pieces. Never change it directly.
+     *
+     * @return chequer
+     */
+    public Bitboard getChequer() {
+        return chequer;
+    }
+
+    /**
+     * Returns the frontier of reachable grids. Never change it directly.
+     *
+     * @return frontier
+     */
+    public ChequerFrontier getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * Returns the count of moves on the chessboard.
+     *
+     * @return step
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the undo record of the <code>i</code>th move.
+     *
+     * @param i the order of the move, from <code>0</code>
+     * @return the packed move as <code>Move</code>
+     */
+    public int getMove(int i) {
+        return undo[i];
+    }
+
+    /**
+     * Returns the point of the <code>i</code>th move.
+     *
+     * @param i the order of the move, from <code>0</code>
+     * @return the point
+     */
+    public Point getPoint(int i) {
+        return Point.index2P(Move.getIndex(undo[i]));
+    }
+
+    /**
+     * Gets the color of the grid <code>(x, y)</code>.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>0</code> for blank, <code>1</code> for black, <code>2</code>
+     *         for white, <code>-1</code> for out-of-edged
+     */
+    public int get(int x, int y) {
+        return chequer.get(x, y);
+    }
+
+    /**
+     * Returns the canonical zobrist key of the chessboard with the side to move
+     * <code>color</code>, which is the same for all the images of the chessboard
+     * under the symmetries of the square.
+     *
+     * @param color the side to move: <code>1</code> for black, <code>2</code> for
+     *              white
+     * @return the zobrist key
+     */
+    public long getZobrist(int color) {
+        return status.getZobrist(color);
+    }
+
+    /**
+     * Returns the symmetry which maps the chessboard to the canonical one of the
+     * zobrist key.
+     *
+     * @return the symmetry
+     */
+    public int getSymmetry() {
+        return status.getSymmetry();
+    }
+
+    /**
+     * Maps the point <code>index</code> to its image in the canonical chessboard.
+     *
+     * @param index    the index of the point, or negative for none
+     * @param symmetry the symmetry from <code>getSymmetry()</code>
+     * @return the index of the image, or <code>index</code> if it is negative
+     */
+    public int toCanonical(int index, int symmetry) {
+        return status.toCanonical(index, symmetry);
+    }
+
+    /**
+     * Maps the image <code>index</code> in the canonical chessboard back to its
+     * point.
+     *
+     * @param index    the index of the image, or negative for none
+     * @param symmetry the symmetry from <code>getSymmetry()</code>
+     * @return the index of the point, or <code>index</code> if it is negative
+     */
+    public int fromCanonical(int index, int symmetry) {
+        return status.fromCanonical(index, symmetry);
+    }
+
+    /**
+     * Returns the score of the whole chessboard for one side <code>color</code>.
+     *
+     * @param color the side to evaluate
+     * @return the score for one side
+     */
+    public int getScore(int color) {
+        return evaluation.getScore(color);
+    }
+
+    /**
+     * Places a chess piece of <code>color</code> on the grid <code>(x, y)</code>,
+     * if the grid is blank and reachable via a knight move, or it is the first
+     * move.
+     *
+     * @param x     the x coordinate of the point
+     * @param y     the y coordinate of the point
+     * @param color the color of the chess piece: <code>1</code> for black,
+     *              <code>2</code> for white
+     * @return <code>true</code> if the move is made, <code>false</code> otherwise
+     */
+    public boolean make(int x, int y, int color) {
+        if (chequer.get(x, y) != 0 || step > 0 && !frontier.isKnight(x, y) || color != 1 && color != 2) {
+            return false;
+        }
+        chequer.set(x, y, color);
+        status.toggle(x, y, color);
+        frontier.fill(x, y);
+        evaluation.update(x, y);
+        undo[step++] = Move.of(x, y, color);
+        return true;
+    }
+
+    /**
+     * Places a chess piece as the packed move <code>move</code>, as
+     * <code>make(int, int, int)</code>.
+     *
+     * @param move the packed move
+     * @return <code>true</code> if the move is made, <code>false</code> otherwise
+     */
+    public boolean make(int move) {
+        return Move.getIndex(move) != Move.NULL_INDEX && make(Move.getX(move), Move.getY(move), Move.getColor(move));
+    }
+
+    /**
+     * Undoes the last move.
+     */
+    public void unmake() {
+        if (step == 0) {
+            throw new IllegalStateException("No move to undo.");
+        }
+        int move = undo[--step];
+        int x = Move.getX(move);
+        int y = Move.getY(move);
+        chequer.set(x, y, 0);
+        status.toggle(x, y, Move.getColor(move));
+        frontier.empty(x, y);
+        evaluation.update(x, y);
+    }
+
+    /**
+     * Undoes the last <code>count</code> moves.
+     *
+     * @param count the count of moves to undo
+     */
+    public void unmake(int count) {
+        for (int i = 0; i < count; i++) {
+            unmake();
+        }
+    }
+}
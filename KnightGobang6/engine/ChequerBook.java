@@ -0,0 +1,197 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <code>ChequerBook</code> records the opening book of a chessboard length for
+ * <code>Engine</code>, which answers the situations of the opening without
+ * a search.
+ * <p>
+ * The book is a binary file mapped into memory. It starts with a header of
+ * <code>16</code> bytes, the magic number, the chessboard length, the count of
+ * records and a reserved <code>int</code>, and then the records of
+ * <code>16</code> bytes sorted by the key, each of which is:
+ * <p>
+ * The <code>0th</code> to <code>7th</code> bytes are for the canonical zobrist
+ * key of the situation with the side to move;
+ * <p>
+ * The <code>8th</code> and <code>9th</code> bytes are for the index of the move
+ * in the canonical situation;
+ * <p>
+ * The <code>10th</code> and <code>11th</code> bytes are for the weight, which
+ * is the count of games the move was played in;
+ * <p>
+ * The <code>12th</code> to <code>15th</code> bytes are for the score, which is
+ * the count of victories minus the count of defeats of the side to move.
+ * <p>
+ * A situation may have several records, one for each move. The book of each
+ * length is built by <code>ChequerBookBuilder</code>.
+ * <p>
+ * <code>ChequerBook</code> is affiliated to <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerBookBuilder
+ * @see ChequerStatus
+ */
+public class ChequerBook {
+    /**
+     * Records the magic number at the head of a book file, which is "KGB6".
+     */
+    public static final int MAGIC = 0x4B474236;
+    /**
+     * Records the size of the header in bytes.
+     */
+    public static final int HEADER_BYTES = 16;
+    /**
+     * Records the size of a record in bytes.
+     */
+    public static final int RECORD_BYTES = 16;
+    /**
+     * Records the opened books of each length, <code>null</code> if it has not
+     * been opened.
+     */
+    private static final ChequerBook[] BOOKS = new ChequerBook[ChequerStatus.MAX_LENGTH + 1];
+    /**
+     * Records if the book of each length has been tried to open.
+     */
+    private static final boolean[] OPENED = new boolean[ChequerStatus.MAX_LENGTH + 1];
+    /**
+     * Records the mapped content of the book file.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Records the count of records.
+     */
+    private final int count;
+
+    /**
+     * Constructs a new <code>ChequerBook</code> on the mapped content
+     * <code>buffer</code>.
+     *
+     * @param buffer the mapped content with a valid header
+     * @param count  the count of records
+     */
+    private ChequerBook(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Returns the path of the book file of the chessboard length
+     * <code>length</code>.
+     *
+     * @param length the length of chequer
+     * @return the book file
+     */
+    public static File getFile(int length) {
+        return new File(System.getProperty("user.dir") + File.separator + "book" + File.separator + "KG6_" + length
+                + ".book");
+    }
+
+    /**
+     * Returns the book of the chessboard length <code>length</code>, which is
+     * opened only once.
+     *
+     * @param length the length of chequer
+     * @return the book, or <code>null</code> if there is no valid book
+     */
+    public static synchronized ChequerBook get(int length) {
+        if (length < 0 || length > ChequerStatus.MAX_LENGTH) {
+            return null;
+        }
+        if (!OPENED[length]) {
+            OPENED[length] = true;
+            BOOKS[length] = open(getFile(length), length);
+        }
+        return BOOKS[length];
+    }
+
+    /**
+     * Maps the book file <code>file</code> into memory.
+     *
+     * @param file   the book file
+     * @param length the length of chequer the book must be for
+     * @return the book, or <code>null</code> if the file doesn't exist or is
+     *         invalid
+     */
+    public static ChequerBook open(File file, int length) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != length || count < 0
+                    || size != HEADER_BYTES + (long) count * RECORD_BYTES) {
+                return null;
+            }
+            return new ChequerBook(buffer, count);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the count of records.
+     *
+     * @return count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the move of the situation <code>key</code> via a binary search,
+     * which is the most played one of those not losing more than winning.
+     *
+     * @param key the canonical zobrist key of the situation with the side to move
+     * @return the index of the move in the canonical situation, or <code>-1</code>
+     *         if there is no such move
+     */
+    public int probe(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getKey(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int move = -1;
+        int maxWeight = 0;
+        int maxScore = 0;
+        for (int i = low; i < count && getKey(i) == key; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            int weight = buffer.getShort(offset + 10) & 0xFFFF;
+            int score = buffer.getInt(offset + 12);
+            if (score >= 0 && (weight > maxWeight || weight == maxWeight && score > maxScore)) {
+                move = buffer.getShort(offset + 8) & 0xFFFF;
+                maxWeight = weight;
+                maxScore = score;
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Returns the key of the <code>i</code>th record.
+     *
+     * @param i the order of the record
+     * @return the key
+     */
+    private long getKey(int i) {
+        return buffer.getLong(HEADER_BYTES + i * RECORD_BYTES);
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * <code>ChequerCache</code> acts as a transposition table for data storage in
+ * <code>Engine</code>'s evaluate functions, based on fixed-size primitive
+ * arrays.
+ * <p>
+ * The table holds a power-of-two count of entries grouped in buckets of
+ * <code>2</code>: the first entry of a bucket is depth-preferred, the second
+ * one is always replaced. Each entry is made of a verification key in
+ * <code>keys</code> and a packed record in <code>data</code>, so the memory
+ * never grows during a match.
+ * <p>
+ * The table is shared by all the search threads without any lock. The key of
+ * an entry is stored XOR-ed with its record, so an entry torn by two threads
+ * writing at the same time fails the verification and is taken as a miss.
+ * <p>
+ * <code>ChequerCache</code> is affiliated to <code>Engine</code>, and each
+ * <code>Engine</code> shares its own one with its helpers.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerStatus
+ */
+public class ChequerCache {
+    /**
+     * Records the flag of an exact value.
+     */
+    public static final int EXACT = 0;
+    /**
+     * Records the flag of a value which is a lower bound, caused by a cut-off at
+     * <code>beta</code>.
+     */
+    public static final int LOWER = 1;
+    /**
+     * Records the flag of a value which is an upper bound, caused by no point
+     * better than <code>alpha</code>.
+     */
+    public static final int UPPER = 2;
+    /**
+     * Records the bytes a single entry takes, which is a key and a record.
+     */
+    private static final int ENTRY_BYTES = 16;
+    /**
+     * Records the offset of the move part in a packed record.
+     */
+    private static final int MOVE_SHIFT = 32;
+    /**
+     * Records the offset of the depth part in a packed record.
+     */
+    private static final int DEEP_SHIFT = 45;
+    /**
+     * Records the offset of the flag part in a packed record.
+     */
+    private static final int FLAG_SHIFT = 53;
+    /**
+     * Records the offset of the generation part in a packed record.
+     */
+    private static final int GENERATION_SHIFT = 55;
+    /**
+     * Records the bit which marks a record as used.
+     */
+    private static final long USED = 1L << 63;
+    /**
+     * Records the verification key of each entry, which is the whole zobrist key
+     * XOR-ed with the record in <code>data</code>.
+     */
+    private final long[] keys;
+    /**
+     * Records the packed record of each entry.
+     * <p>
+     * The <code>0th</code> to <code>31st</code> bits are for the value;
+     * <p>
+     * The <code>32nd</code> to <code>44th</code> bits are for the index of the best
+     * point plus <code>1</code>, <code>0</code> for no point;
+     * <p>
+     * The <code>45th</code> to <code>52nd</code> bits are for the depth;
+     * <p>
+     * The <code>53rd</code> to <code>54th</code> bits are for the flag;
+     * <p>
+     * The <code>55th</code> to <code>62nd</code> bits are for the generation;
+     * <p>
+     * The <code>63rd</code> bit is always set, so that <code>0</code> stands for an
+     * empty entry.
+     */
+    private final long[] data;
+    /**
+     * Records the mask to turn a key into the index of its bucket.
+     */
+    private final int mask;
+    /**
+     * Records the generation of current search, which makes entries from former
+     * searches replaceable.
+     */
+    private int generation;
+
+    /**
+     * Constructs a new <code>ChequerCache</code> which takes at most
+     * <code>megabytes</code> of memory.
+     *
+     * @param megabytes the memory budget in megabytes
+     */
+    public ChequerCache(int megabytes) {
+        long entries = Long.highestOneBit(Math.max(2, (long) megabytes * (1 << 20) / ENTRY_BYTES));
+        entries = Math.min(entries, 1 << 30);
+        this.keys = new long[(int) entries];
+        this.data = new long[(int) entries];
+        this.mask = (int) entries - 2;
+        this.generation = 0;
+    }
+
+    /**
+     * Starts a new generation. Call this method before each search of a move, so
+     * that the entries from former searches can be replaced in priority.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Clears all the entries in <code>ChequerCache</code>.
+     */
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0;
+            data[i] = 0;
+        }
+        generation = 0;
+    }
+
+    /**
+     * Puts the point and value into storage with its flag.
+     * <p>
+     * The depth-preferred entry of the bucket is replaced if it is from a former
+     * search, or for the same situation, or not deeper than <code>deep</code>;
+     * otherwise the always-replace entry is replaced.
+     *
+     * @param key   key of the situation
+     * @param index the index of the best point, or <code>-1</code> for no point
+     * @param value value of the situation
+     * @param deep  the left depth of the search
+     * @param flag  <code>EXACT</code>, <code>LOWER</code> or <code>UPPER</code>
+     */
+    public void put(long key, int index, int value, int deep, int flag) {
+        int bucket = (int) key & mask;
+        long record = pack(index + 1, value, deep, flag);
+        long old = data[bucket];
+        if ((keys[bucket] ^ old) == key || old == 0 || (int) (old >>> GENERATION_SHIFT & 0xFF) != generation
+                || (int) (old >>> DEEP_SHIFT & 0xFF) <= deep) {
+            data[bucket] = record;
+            keys[bucket] = key ^ record;
+        } else {
+            data[bucket + 1] = record;
+            keys[bucket + 1] = key ^ record;
+        }
+    }
+
+    /**
+     * Returns the pair of point and value in storage, packed as
+     * <code>PointAndValue.pack(int, int)</code>, if the depth is enough and the
+     * value is usable in the window from <code>alpha</code> to <code>beta</code>,
+     * otherwise returns <code>PointAndValue.NONE</code>.
+     *
+     * @param key   key of the situation
+     * @param deep  the left depth of the search
+     * @param alpha the value the side to move has already got
+     * @param beta  the value the other side has already got, in the view of the
+     *              side to move
+     * @return the packed pair of point and value
+     */
+    public long get(long key, int deep, int alpha, int beta) {
+        long record = probe(key);
+        if (record == 0 || (int) (record >>> DEEP_SHIFT & 0xFF) < deep) {
+            return PointAndValue.NONE;
+        }
+        int value = (int) record;
+        int flag = (int) (record >>> FLAG_SHIFT & 0x3);
+        if (flag == EXACT || flag == LOWER && value >= beta || flag == UPPER && value <= alpha) {
+            int move = (int) (record >>> MOVE_SHIFT & 0x1FFF);
+            return move == 0 ? PointAndValue.NONE : PointAndValue.pack(move - 1, value);
+        }
+        return PointAndValue.NONE;
+    }
+
+    /**
+     * Returns the index of the best point in storage regardless of the depth, or
+     * <code>-1</code> if it doesn't exist.
+     *
+     * @param key key of the situation
+     * @return the index of the best point
+     */
+    public int getMove(long key) {
+        return (int) (probe(key) >>> MOVE_SHIFT & 0x1FFF) - 1;
+    }
+
+    /**
+     * Returns the packed record of <code>key</code> in its bucket, or
+     * <code>0</code> if it doesn't exist.
+     *
+     * @param key key of the situation
+     * @return the packed record
+     */
+    private long probe(long key) {
+        int index = (int) key & mask;
+        long record = data[index];
+        if ((keys[index] ^ record) == key) {
+            return record;
+        }
+        record = data[index + 1];
+        if ((keys[index + 1] ^ record) == key) {
+            return record;
+        }
+        return 0;
+    }
+
+    /**
+     * Packs an entry into a record with current generation.
+     *
+     * @param move  the index of the best point plus <code>1</code>
+     * @param value value of the situation
+     * @param deep  the left depth of the search
+     * @param flag  flag of the value
+     * @return the packed record
+     */
+    private long pack(int move, int value, int deep, int flag) {
+        return value & 0xFFFFFFFFL | (long) move << MOVE_SHIFT | (long) Math.min(deep, 0xFF) << DEEP_SHIFT
+                | (long) flag << FLAG_SHIFT | (long) generation << GENERATION_SHIFT | USED;
+    }
+}
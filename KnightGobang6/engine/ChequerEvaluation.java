@@ -0,0 +1,243 @@
+/**
+ * <code>ChequerEvaluation</code> keeps the score of the whole chessboard for
+ * <code>Engine</code>'s evaluate functions up to date incrementally.
+ * <p>
+ * The score of a side is the sum of the scores of its chess pieces in
+ * <code>4</code> directions, and a chess piece's score in a direction only
+ * depends on the grids in the same line. So the score is recorded for each
+ * line, and when a grid changes, only the lines through it are scored again.
+ * Since a blank which is not reachable via a knight move lowers the score, the
+ * lines through the blanks a knight move away from the grid are scored again as
+ * well.
+ * <p>
+ * The scores are in fixed-point from <code>ChequerPattern</code>, so the
+ * running total never drifts.
+ * <p>
+ * <code>ChequerEvaluation</code> is affiliated to <code>ChequerBoard</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerBoard
+ * @see Bitboard
+ * @see ChequerPattern
+ */
+public class ChequerEvaluation {
+    /**
+     * Points to the evaluated chequer.
+     */
+    private final Bitboard chequer;
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the score of each line.
+     * <p>
+     * The <code>1st</code> dimension indicates the color, <code>0</code> for
+     * black, <code>1</code> for white;
+     * <p>
+     * The <code>2nd</code> dimension indicates the direction in
+     * <code>Direction.get4Directions()</code>;
+     * <p>
+     * The <code>3rd</code> dimension indicates the line in the direction.
+     */
+    private final long[][][] lineScore;
+    /**
+     * Records the score of the whole chessboard for each color.
+     */
+    private final long[] total;
+    /**
+     * Records the latest stamp each line was scored with, which avoids scoring a
+     * line twice in a single update.
+     */
+    private final int[][] lineStamp;
+    /**
+     * Records the stamp of current update.
+     */
+    private int stamp;
+
+    /**
+     * Constructs a new <code>ChequerEvaluation</code> for the chequer
+     * <code>chequer</code>.
+     *
+     * @param chequer the evaluated chequer
+     */
+    public ChequerEvaluation(Bitboard chequer) {
+        this.chequer = chequer;
+        this.length = chequer.getLength();
+        this.lineScore = new long[2][4][2 * length - 1];
+        this.total = new long[2];
+        this.lineStamp = new int[4][2 * length - 1];
+        this.stamp = 0;
+        scoreAll();
+    }
+
+    /**
+     * Scores all the lines again.
+     */
+    public void reset() {
+        scoreAll();
+    }
+
+    /**
+     * Scores all the lines from scratch, as <code>reset()</code>.
+     */
+    private void scoreAll() {
+        total[0] = 0;
+        total[1] = 0;
+        stamp++;
+        for (int x = 0; x < length; x++) {
+            for (int y = 0; y < length; y++) {
+                updateLines(x, y);
+            }
+        }
+    }
+
+    /**
+     * Updates the score after the grid <code>(x, y)</code> changes.
+     *
+     * @param x the x coordinate of the changed grid
+     * @param y the y coordinate of the changed grid
+     */
+    public void update(int x, int y) {
+        stamp++;
+        updateLines(x, y);
+        for (Diagram dia : Diagram.get8Diagrams()) {
+            if (chequer.get(x + dia.x, y + dia.y) == 0) {
+                updateLines(x + dia.x, y + dia.y);
+            }
+        }
+    }
+
+    /**
+     * Returns the score of the whole chessboard for one side <code>color</code>.
+     *
+     * @param color the side to evaluate
+     * @return the score for one side
+     */
+    public int getScore(int color) {
+        return (int) (total[color - 1] >> ChequerPattern.SCALE_BITS);
+    }
+
+    /**
+     * Scores the <code>4</code> lines through the grid <code>(x, y)</code> again,
+     * unless they have been scored in current update.
+     *
+     * @param x the x coordinate of the grid
+     * @param y the y coordinate of the grid
+     */
+    private void updateLines(int x, int y) {
+        Direction[] dirs = Direction.get4Directions();
+        for (int d = 0; d < dirs.length; d++) {
+            int index = getLineIndex(d, x, y);
+            if (lineStamp[d][index] != stamp) {
+                lineStamp[d][index] = stamp;
+                updateLine(dirs[d], d, index, x, y);
+            }
+        }
+    }
+
+    /**
+     * Scores the line through the grid <code>(x, y)</code> in the direction
+     * <code>dir</code> again.
+     *
+     * @param dir   the direction of the line
+     * @param d     the order of the direction
+     * @param index the index of the line
+     * @param x     the x coordinate of a grid in the line
+     * @param y     the y coordinate of a grid in the line
+     */
+    private void updateLine(Direction dir, int d, int index, int x, int y) {
+        while (chequer.get(x - dir.x, y - dir.y) >= 0) {
+            x -= dir.x;
+            y -= dir.y;
+        }
+        long black = 0;
+        long white = 0;
+        for (; chequer.get(x, y) >= 0; x += dir.x, y += dir.y) {
+            int color = chequer.get(x, y);
+            if (color == 1) {
+                black += evaluateChess(x, y, color, dir);
+            } else if (color == 2) {
+                white += evaluateChess(x, y, color, dir);
+            }
+        }
+        total[0] += black - lineScore[0][d][index];
+        lineScore[0][d][index] = black;
+        total[1] += white - lineScore[1][d][index];
+        lineScore[1][d][index] = white;
+    }
+
+    /**
+     * Returns the index of the line through the grid <code>(x, y)</code> in the
+     * <code>d</code>th direction of <code>Direction.get4Directions()</code>.
+     *
+     * @param d the order of the direction
+     * @param x the x coordinate of the grid
+     * @param y the y coordinate of the grid
+     * @return the index of the line
+     */
+    private int getLineIndex(int d, int x, int y) {
+        switch (d) {
+            case 0:
+                return y;
+            case 1:
+                return x - y + length - 1;
+            case 2:
+                return x;
+            default:
+                return x + y;
+        }
+    }
+
+    /**
+     * Evaluates the chess piece on the grid <code>(x, y)</code> in the direction
+     * <code>dir</code>.
+     * <p>
+     * The line starts from the chess piece and extends at most <code>6</code>
+     * grids on each side until it is blocked by the edge or the other side.
+     *
+     * @param x     the x coordinate of the chess piece
+     * @param y     the y coordinate of the chess piece
+     * @param color the color of the chess piece
+     * @param dir   appointed direction
+     * @return the fixed-point score of the chess piece in the direction
+     */
+    private long evaluateChess(int x, int y, int color, Direction dir) {
+        boolean head = false;
+        boolean tail = false;
+        int left = 0;
+        int right = 0;
+        for (int i = 1; i <= 6; i++) {
+            int grid = chequer.get(x - dir.x * i, y - dir.y * i);
+            if (grid != color && grid != 0) {
+                head = true;
+                break;
+            }
+            left++;
+        }
+        for (int i = 1; i <= 6; i++) {
+            int grid = chequer.get(x + dir.x * i, y + dir.y * i);
+            if (grid != color && grid != 0) {
+                tail = true;
+                break;
+            }
+            right++;
+        }
+        int size = left + right + 1;
+        int bits = 0;
+        int blank = 0;
+        for (int i = -left; i <= right; i++) {
+            int gx = x + dir.x * i;
+            int gy = y + dir.y * i;
+            int grid = chequer.get(gx, gy);
+            if (grid != 0) {
+                bits |= 1 << (i + left);
+            } else if (!chequer.isKnight(gx, gy)) {
+                blank++;
+            }
+        }
+        return ChequerPattern.getLineScore(head, tail, size, bits) * ChequerPattern.getBlankFactor(blank) >> ChequerPattern.FACTOR_BITS;
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * <code>ChequerFrontier</code> records the blank grids which are reachable via a
+ * knight move for <code>Engine</code>'s evaluate functions.
+ * <p>
+ * Each grid records the count of chess pieces a knight move away from it, and
+ * the reachable blank grids are kept in a compact list without duplicates, so
+ * that a move or a retraction updates it in at most <code>8</code> steps. The
+ * grids are indexed as <code>Point.p2Index()</code>.
+ * <p>
+ * <code>ChequerFrontier</code> is affiliated to <code>ChequerBoard</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerBoard
+ * @see Diagram
+ */
+public class ChequerFrontier {
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the count of chess pieces a knight move away from each grid.
+     */
+    private final int[] count;
+    /**
+     * Records if each grid has been placed a chess piece.
+     */
+    private final boolean[] filled;
+    /**
+     * Records the indexes of the reachable blank grids.
+     */
+    private final int[] list;
+    /**
+     * Records the position of each grid in <code>list</code>, <code>-1</code> for
+     * not in it.
+     */
+    private final int[] position;
+    /**
+     * Records the count of the reachable blank grids.
+     */
+    private int size;
+
+    /**
+     * Constructs a new blank <code>ChequerFrontier</code> with the chequer length
+     * <code>length</code>.
+     *
+     * @param length the length of chequer, no more than <code>64</code>
+     */
+    public ChequerFrontier(int length) {
+        this.length = length;
+        this.count = new int[length << 6];
+        this.filled = new boolean[length << 6];
+        this.list = new int[length * length];
+        this.position = new int[length << 6];
+        for (int i = 0; i < position.length; i++) {
+            position[i] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Returns the count of the reachable blank grids.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the <code>i</code>th reachable blank grid.
+     *
+     * @param i the position in the list
+     * @return the index of the grid
+     */
+    public int get(int i) {
+        return list[i];
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is reachable via a knight move.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is reachable, <code>false</code>
+     *         otherwise
+     */
+    public boolean isKnight(int x, int y) {
+        return x >= 0 && x < length && y >= 0 && y < length && count[x << 6 | y] > 0;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is a reachable blank grid.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return <code>true</code> if the grid is in the list, <code>false</code>
+     *         otherwise
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < length && y >= 0 && y < length && position[x << 6 | y] >= 0;
+    }
+
+    /**
+     * Updates the frontier after a chess piece is placed on the grid
+     * <code>(x, y)</code>.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     */
+    public void fill(int x, int y) {
+        int index = x << 6 | y;
+        if (filled[index]) {
+            return;
+        }
+        filled[index] = true;
+        remove(index);
+        for (Diagram dia : Diagram.get8Diagrams()) {
+            int nx = x + dia.x;
+            int ny = y + dia.y;
+            if (nx >= 0 && nx < length && ny >= 0 && ny < length) {
+                int near = nx << 6 | ny;
+                if (++count[near] == 1 && !filled[near]) {
+                    add(near);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the frontier after the chess piece on the grid <code>(x, y)</code>
+     * is removed.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     */
+    public void empty(int x, int y) {
+        int index = x << 6 | y;
+        if (!filled[index]) {
+            return;
+        }
+        filled[index] = false;
+        for (Diagram dia : Diagram.get8Diagrams()) {
+            int nx = x + dia.x;
+            int ny = y + dia.y;
+            if (nx >= 0 && nx < length && ny >= 0 && ny < length) {
+                int near = nx << 6 | ny;
+                if (--count[near] == 0) {
+                    remove(near);
+                }
+            }
+        }
+        if (count[index] > 0) {
+            add(index);
+        }
+    }
+
+    /**
+     * Adds the grid <code>index</code> to the end of the list.
+     *
+     * @param index the index of the grid
+     */
+    private void add(int index) {
+        position[index] = size;
+        list[size++] = index;
+    }
+
+    /**
+     * Removes the grid <code>index</code> from the list if it is in it, by moving
+     * the last grid to its position.
+     *
+     * @param index the index of the grid
+     */
+    private void remove(int index) {
+        int i = position[index];
+        if (i < 0) {
+            return;
+        }
+        int last = list[--size];
+        list[i] = last;
+        position[last] = i;
+        position[index] = -1;
+    }
+}
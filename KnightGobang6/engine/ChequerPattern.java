@@ -0,0 +1,300 @@
+/**
+ * <code>ChequerPattern</code> records the precomputed scores of all the line
+ * patterns for <code>Engine</code>'s evaluate functions in integer
+ * fixed-point tables.
+ * <p>
+ * A pattern is the part of a line which is not blocked by the edge or the other
+ * side. It only has blanks and chess pieces of the evaluated side, so it is
+ * encoded as a bit index, <code>1</code> for a chess piece and <code>0</code>
+ * for a blank, and the same tables serve both sides. The code of a pattern with
+ * <code>size</code> grids and bit index <code>bits</code> is
+ * <code>(1 &lt;&lt; size) - 1 + bits</code>.
+ * <p>
+ * <code>ChequerPattern</code> is affiliated to <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerEvaluation
+ */
+public abstract class ChequerPattern {
+    /**
+     * Records the fraction bits of the fixed-point scores.
+     */
+    public static final int SCALE_BITS = 12;
+    /**
+     * Records the fraction bits of the fixed-point factors.
+     */
+    public static final int FACTOR_BITS = 16;
+    /**
+     * Records the factor of the side which is not the player itself, which is
+     * <code>0.83</code> in fixed-point.
+     */
+    public static final long OPPONENT_FACTOR = Math.round(0.83 * (1 << FACTOR_BITS));
+    /**
+     * Records the maximum of grids on each side of a point.
+     */
+    private static final int HALF_SIZE = 6;
+    /**
+     * Records the maximum of grids of a line through a chess piece.
+     */
+    private static final int LINE_SIZE = 2 * HALF_SIZE + 1;
+    /**
+     * Records the count of codes of a half line.
+     */
+    private static final int HALF_CODES = (1 << HALF_SIZE + 1) - 1;
+    /**
+     * Records the count of codes of a line.
+     */
+    private static final int LINE_CODES = (1 << LINE_SIZE + 1) - 1;
+    /**
+     * Records the score of a point in a direction, indexed by if the head is
+     * blocked, if the tail is blocked, the code of the left half line and the
+     * code of the right half line.
+     */
+    private static final long[] POINT_SCORE = new long[4 * HALF_CODES * HALF_CODES];
+    /**
+     * Records the score of a chess piece in a direction, indexed by if the head
+     * is blocked, if the tail is blocked and the code of the line.
+     */
+    private static final long[] LINE_SCORE = new long[4 * LINE_CODES];
+    /**
+     * Records the factor for the blanks which are not reachable via a knight move,
+     * indexed by the count of such blanks.
+     */
+    private static final long[] BLANK_FACTOR = new long[LINE_SIZE + 1];
+    /**
+     * Initializes the tables.
+     */
+    static {
+        for (int head = 0; head < 2; head++) {
+            for (int tail = 0; tail < 2; tail++) {
+                for (int left = 0; left <= HALF_SIZE; left++) {
+                    for (int leftBits = 0; leftBits < 1 << left; leftBits++) {
+                        for (int right = 0; right <= HALF_SIZE; right++) {
+                            for (int rightBits = 0; rightBits < 1 << right; rightBits++) {
+                                double r = 1;
+                                if (head == 1 && tail == 1) {
+                                    if (left + right + 3 < 8) {
+                                        r *= 0;
+                                    } else {
+                                        r /= 1.57;
+                                    }
+                                } else {
+                                    if (head == 1) {
+                                        r /= 1.25;
+                                    }
+                                    if (tail == 1) {
+                                        r /= 1.25;
+                                    }
+                                }
+                                double score = evaluateHalfLine(left, leftBits) * evaluateHalfLine(right, rightBits) * r;
+                                POINT_SCORE[getPointIndex(head == 1, tail == 1, left, leftBits, right, rightBits)] = toFixed(score);
+                            }
+                        }
+                    }
+                }
+                for (int size = 1; size <= LINE_SIZE; size++) {
+                    for (int bits = 0; bits < 1 << size; bits++) {
+                        double r = 1;
+                        if (head == 1 && tail == 1) {
+                            if (size + 2 < 8) {
+                                r *= 0.01;
+                            }
+                            r *= 0.01;
+                        } else {
+                            if (head == 1) {
+                                r *= 0.1;
+                            }
+                            if (tail == 1) {
+                                r *= 0.1;
+                            }
+                        }
+                        LINE_SCORE[getLineIndex(head == 1, tail == 1, size, bits)] = toFixed(evaluateLine(size, bits) * r);
+                    }
+                }
+            }
+        }
+        double factor = 1 << FACTOR_BITS;
+        for (int i = 0; i <= LINE_SIZE; i++) {
+            BLANK_FACTOR[i] = Math.round(factor);
+            factor /= 1.25;
+        }
+    }
+
+    /**
+     * Returns the fixed-point score of a point in a direction.
+     *
+     * @param head      <code>true</code> if the head is blocked
+     * @param tail      <code>true</code> if the tail is blocked
+     * @param left      the count of grids of the left half line
+     * @param leftBits  the bit index of the left half line, from the point
+     *                  outwards
+     * @param right     the count of grids of the right half line
+     * @param rightBits the bit index of the right half line, from the point
+     *                  outwards
+     * @return the fixed-point score
+     */
+    public static long getPointScore(boolean head, boolean tail, int left, int leftBits, int right, int rightBits) {
+        return POINT_SCORE[getPointIndex(head, tail, left, leftBits, right, rightBits)];
+    }
+
+    /**
+     * Returns the fixed-point score of a chess piece in a direction.
+     *
+     * @param head <code>true</code> if the head is blocked
+     * @param tail <code>true</code> if the tail is blocked
+     * @param size the count of grids of the line
+     * @param bits the bit index of the line
+     * @return the fixed-point score
+     */
+    public static long getLineScore(boolean head, boolean tail, int size, int bits) {
+        return LINE_SCORE[getLineIndex(head, tail, size, bits)];
+    }
+
+    /**
+     * Returns the fixed-point factor for <code>blank</code> blanks which are not
+     * reachable via a knight move.
+     *
+     * @param blank the count of such blanks
+     * @return the fixed-point factor
+     */
+    public static long getBlankFactor(int blank) {
+        return BLANK_FACTOR[blank];
+    }
+
+    /**
+     * Returns the index of a point pattern in <code>POINT_SCORE</code>.
+     *
+     * @param head      <code>true</code> if the head is blocked
+     * @param tail      <code>true</code> if the tail is blocked
+     * @param left      the count of grids of the left half line
+     * @param leftBits  the bit index of the left half line
+     * @param right     the count of grids of the right half line
+     * @param rightBits the bit index of the right half line
+     * @return the index
+     */
+    private static int getPointIndex(boolean head, boolean tail, int left, int leftBits, int right, int rightBits) {
+        int blocked = (head ? 2 : 0) | (tail ? 1 : 0);
+        return (blocked * HALF_CODES + (1 << left) - 1 + leftBits) * HALF_CODES + (1 << right) - 1 + rightBits;
+    }
+
+    /**
+     * Returns the index of a line pattern in <code>LINE_SCORE</code>.
+     *
+     * @param head <code>true</code> if the head is blocked
+     * @param tail <code>true</code> if the tail is blocked
+     * @param size the count of grids of the line
+     * @param bits the bit index of the line
+     * @return the index
+     */
+    private static int getLineIndex(boolean head, boolean tail, int size, int bits) {
+        int blocked = (head ? 2 : 0) | (tail ? 1 : 0);
+        return blocked * LINE_CODES + (1 << size) - 1 + bits;
+    }
+
+    /**
+     * Changes a score to fixed-point, no more than the maximum of integer.
+     *
+     * @param score the score
+     * @return the fixed-point score
+     */
+    private static long toFixed(double score) {
+        return Math.round(Math.min(score, Integer.MAX_VALUE) * (1 << SCALE_BITS));
+    }
+
+    /**
+     * Evaluates a half line of a point, which is followed by a blank.
+     *
+     * @param size the count of grids of the half line
+     * @param bits the bit index of the half line
+     * @return the score for the half line
+     */
+    private static double evaluateHalfLine(int size, int bits) {
+        int edge = -1;
+        for (int i = 0; i < size; i++) {
+            if ((bits >> i & 1) != 0) {
+                edge = i;
+            }
+        }
+        double result = 1;
+        int lastGrid = 0;
+        int grid = 0;
+        for (int i = 0; i <= size; i++) {
+            lastGrid = grid;
+            grid = bits >> i & 1;
+            if (edge == -1) {
+                result *= 1.06;
+            } else {
+                if (grid != 0) {
+                    result *= 10;
+                } else if (i < edge) {
+                    if (lastGrid == 0) {
+                        result /= 1.25;
+                    } else {
+                        result /= 1.12;
+                    }
+                } else {
+                    if (lastGrid == 0) {
+                        result *= 1.06;
+                    } else {
+                        result *= 1.12;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a line of a chess piece.
+     *
+     * @param size the count of grids of the line
+     * @param bits the bit index of the line
+     * @return the score for the line
+     */
+    private static double evaluateLine(int size, int bits) {
+        int leftEdge = -1;
+        int rightEdge = -1;
+        for (int i = 0; i < size; i++) {
+            if ((bits >> i & 1) != 0) {
+                if (leftEdge == -1) {
+                    leftEdge = i;
+                }
+                rightEdge = i;
+            }
+        }
+        double result = 1;
+        int lastGrid = 0;
+        int grid = 0;
+        int cnt = 0;
+        for (int i = 0; i < size; i++) {
+            lastGrid = grid;
+            grid = bits >> i & 1;
+            if (leftEdge == -1 || rightEdge == -1) {
+                result *= 1.06;
+            } else {
+                if (grid != 0) {
+                    if (++cnt <= 6) {
+                        result *= 10;
+                    } else {
+                        result *= 1.06;
+                    }
+                } else if (i > leftEdge && i < rightEdge) {
+                    if (lastGrid == 0) {
+                        result /= 1.25;
+                    } else {
+                        result /= 1.12;
+                    }
+                } else {
+                    if (lastGrid == 0) {
+                        result *= 1.06;
+                    } else {
+                        result *= 1.12;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
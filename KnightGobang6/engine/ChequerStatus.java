@@ -0,0 +1,205 @@
+import java.util.Random;
+
+/**
+ * <code>ChequerStatus</code> records the zobrist key of the situation in
+ * <code>Engine</code>'s evaluate functions.
+ * <p>
+ * The situations which are images of each other under the <code>8</code>
+ * symmetries of the square, the rotations and the reflections, are equivalent,
+ * since both the continuous <code>6</code> and the knight moves are kept by
+ * them. So <code>ChequerStatus</code> keeps a key for the image of the
+ * chessboard under each symmetry, and the minimum one is the canonical key of
+ * all the equivalent situations. A point in a situation is mapped to its image
+ * in the canonical situation via <code>toCanonical</code>, and back via
+ * <code>fromCanonical</code>.
+ * <p>
+ * The symmetry <code>s</code> transposes the point first if the
+ * <code>0th</code> bit is <code>1</code>, and then reverses the x coordinate if
+ * the <code>1st</code> bit is <code>1</code>, and the y coordinate if the
+ * <code>2nd</code> bit is <code>1</code>.
+ * <p>
+ * <code>ChequerStatus</code> is affiliated to <code>ChequerBoard</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see ChequerBoard
+ * @see ChequerCache
+ */
+public class ChequerStatus {
+    /**
+     * Records the count of the symmetries of the square.
+     */
+    public static final int SYMMETRIES = 8;
+    /**
+     * Records the maximum of the chessboard's length, which is the span of the
+     * <code>y</code> coordinate in an index.
+     */
+    public static final int MAX_LENGTH = 64;
+    /**
+     * Records the hash codes for black and white chess pieces in each grid.
+     * <p>
+     * The <code>1st</code> dimension indicates the x coordinate of the point;
+     * <p>
+     * The <code>2nd</code> dimension indicates the y coordinate of the point;
+     * <p>
+     * The <code>3rd</code> dimension indicates the color of the chess piece,
+     * <code>0</code> for black, <code>1</code> for white.
+     */
+    private static final long[][][] GRID_HASH = new long[MAX_LENGTH][MAX_LENGTH][2];
+    /**
+     * Records the hash codes for the side to move, <code>0</code> for black,
+     * <code>1</code> for white.
+     */
+    private static final long[] SIDE_HASH = new long[2];
+    /**
+     * Initializes the grid hash values.
+     */
+    static {
+        Random random = new Random(202174362880L);
+        for (int i = 0; i < MAX_LENGTH; i++) {
+            for (int j = 0; j < MAX_LENGTH; j++) {
+                for (int k = 0; k < 2; k++) {
+                    GRID_HASH[i][j][k] = random.nextLong();
+                }
+            }
+        }
+        for (int k = 0; k < 2; k++) {
+            SIDE_HASH[k] = random.nextLong();
+        }
+    }
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the hash codes for the images of the whole chessboard under each
+     * symmetry, <code>0</code> for the chessboard itself.
+     */
+    private final long[] hash;
+
+    /**
+     * Constructs a new <code>ChequerStatus</code> for a blank chessboard with the
+     * chequer length <code>length</code>.
+     *
+     * @param length the length of chequer
+     */
+    public ChequerStatus(int length) {
+        this.length = length;
+        this.hash = new long[SYMMETRIES];
+    }
+
+    /**
+     * Toggles the chess piece of <code>color</code> on the grid
+     * <code>(x, y)</code> in <code>hash</code>, which is the same for placing and
+     * removing it.
+     *
+     * @param x     the x coordinate of the point
+     * @param y     the y coordinate of the point
+     * @param color the color of the chess piece: <code>1</code> for black,
+     *              <code>2</code> for white
+     */
+    public void toggle(int x, int y, int color) {
+        int index = x << 6 | y;
+        for (int s = 0; s < SYMMETRIES; s++) {
+            int image = toCanonical(index, s);
+            hash[s] ^= GRID_HASH[image >> 6][image & 63][color - 1];
+        }
+    }
+
+    /**
+     * Gets <code>hash</code> in <code>ChequerStatus</code>, which records current
+     * situation.
+     *
+     * @return the hash code
+     */
+    public long getZobrist() {
+        return hash[0];
+    }
+
+    /**
+     * Gets the canonical key in <code>ChequerStatus</code> with the side to move
+     * <code>color</code>, which records current situation and all its images for
+     * a search.
+     *
+     * @param color the side to move: <code>1</code> for black, <code>2</code> for
+     *              white
+     * @return the hash code
+     */
+    public long getZobrist(int color) {
+        return hash[getSymmetry()] ^ SIDE_HASH[color - 1];
+    }
+
+    /**
+     * Gets the symmetry which maps current situation to the canonical one, the
+     * first one of the minimum hash code.
+     *
+     * @return the symmetry
+     */
+    public int getSymmetry() {
+        int symmetry = 0;
+        for (int s = 1; s < SYMMETRIES; s++) {
+            if (hash[s] < hash[symmetry]) {
+                symmetry = s;
+            }
+        }
+        return symmetry;
+    }
+
+    /**
+     * Maps the point <code>index</code> to its image under the symmetry
+     * <code>symmetry</code>.
+     *
+     * @param index    the index of the point as <code>Point.p2Index()</code>, or
+     *                 negative for none
+     * @param symmetry the symmetry
+     * @return the index of the image, or <code>index</code> if it is negative
+     */
+    public int toCanonical(int index, int symmetry) {
+        if (index < 0) {
+            return index;
+        }
+        int x = index >> 6;
+        int y = index & 63;
+        if ((symmetry & 1) != 0) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        if ((symmetry & 2) != 0) {
+            x = length - 1 - x;
+        }
+        if ((symmetry & 4) != 0) {
+            y = length - 1 - y;
+        }
+        return x << 6 | y;
+    }
+
+    /**
+     * Maps the image <code>index</code> under the symmetry <code>symmetry</code>
+     * back to its point, which reverses <code>toCanonical</code>.
+     *
+     * @param index    the index of the image as <code>Point.p2Index()</code>, or
+     *                 negative for none
+     * @param symmetry the symmetry
+     * @return the index of the point, or <code>index</code> if it is negative
+     */
+    public int fromCanonical(int index, int symmetry) {
+        if (index < 0) {
+            return index;
+        }
+        int x = index >> 6;
+        int y = index & 63;
+        if ((symmetry & 2) != 0) {
+            x = length - 1 - x;
+        }
+        if ((symmetry & 4) != 0) {
+            y = length - 1 - y;
+        }
+        if ((symmetry & 1) != 0) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        return x << 6 | y;
+    }
+}
@@ -0,0 +1,338 @@
+import java.util.function.BooleanSupplier;
+
+/**
+ * <code>ChequerThreat</code> searches the sequences of continuous
+ * <code>5</code> threats for <code>Engine</code>, which force a victory
+ * before the full search.
+ * <p>
+ * A threat is a move after which the attacker can construct a continuous
+ * <code>6</code> via a single move on a grid reachable via a knight move. The
+ * defender has to block it, so each threat has only one answer, and a move
+ * which makes <code>2</code> threats at once wins at the next move. The search
+ * only tries the attacker's threats and the defender's forced answers, so it
+ * goes much deeper than the full search in the same time.
+ * <p>
+ * Every move of the search is made on the <code>ChequerBoard</code> of the
+ * player, which keeps the knight rule for both sides. The results are recorded
+ * in a small table of its own.
+ * <p>
+ * <code>ChequerThreat</code> is affiliated to <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see ChequerBoard
+ */
+public class ChequerThreat {
+    /**
+     * Records the count of entries of the table, which is a power of
+     * <code>2</code>.
+     */
+    private static final int TABLE_SIZE = 1 << 16;
+    /**
+     * Records the offset of the depth part in a record of the table.
+     */
+    private static final int DEEP_SHIFT = 1;
+    /**
+     * Records the offset of the move part in a record of the table.
+     */
+    private static final int MOVE_SHIFT = 9;
+    /**
+     * Records how many nodes read the clock once, which is a power of
+     * <code>2</code>.
+     */
+    private static final int POLL_INTERVAL = 64;
+    /**
+     * Points to the searched chessboard.
+     */
+    private final ChequerBoard board;
+    /**
+     * Tells if the owner asks the search to stop at once.
+     */
+    private final BooleanSupplier cancel;
+    /**
+     * Points to the bitsets of <code>board</code>.
+     */
+    private final Bitboard chequer;
+    /**
+     * Points to the reachable grids of <code>board</code>.
+     */
+    private final ChequerFrontier frontier;
+    /**
+     * Records the bitset of the grids found by word-parallel methods of
+     * <code>chequer</code>.
+     */
+    private final long[] mask;
+    /**
+     * Records the candidate moves of each depth, copied out of
+     * <code>frontier</code> since the moves change its order.
+     */
+    private int[][] candidates;
+    /**
+     * Records the grids the attacker has to block in each depth.
+     */
+    private int[][] blocks;
+    /**
+     * Records the threats of a move.
+     */
+    private final int[] threats;
+    /**
+     * Records the zobrist keys of the table.
+     */
+    private final long[] keys;
+    /**
+     * Records the results of the table.
+     * <p>
+     * The <code>0th</code> bit is <code>1</code> for a victory;
+     * <p>
+     * The <code>1st</code> to <code>8th</code> bits are for the depth;
+     * <p>
+     * The <code>9th</code> bit and above are for the index of the first move plus
+     * <code>1</code>.
+     */
+    private final int[] data;
+    /**
+     * Records the time the search must stop at in milliseconds.
+     */
+    private long deadline;
+    /**
+     * Records if the search has been stopped by the deadline or by
+     * <code>cancel</code>, which makes its result unknown.
+     */
+    private boolean stopped;
+    /**
+     * Records the count of nodes searched, which decides when to read the clock.
+     */
+    private int polls;
+
+    /**
+     * Constructs a new <code>ChequerThreat</code> which searches on
+     * <code>board</code>, and stops as soon as <code>cancel</code> tells.
+     *
+     * @param board  the searched chessboard
+     * @param cancel tells if the search should stop at once
+     */
+    public ChequerThreat(ChequerBoard board, BooleanSupplier cancel) {
+        this.board = board;
+        this.cancel = cancel;
+        this.chequer = board.getChequer();
+        this.frontier = board.getFrontier();
+        this.mask = new long[board.getLength()];
+        this.candidates = new int[0][];
+        this.blocks = new int[0][];
+        this.threats = new int[8];
+        this.keys = new long[TABLE_SIZE];
+        this.data = new int[TABLE_SIZE];
+        this.stopped = false;
+    }
+
+    /**
+     * Returns if the last search has been stopped, so that its
+     * failure is not a proof.
+     *
+     * @return stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Searches if <code>color</code> can win by continuous threats as the side to
+     * move, with at most <code>deep</code> threats.
+     *
+     * @param color    the attacking side
+     * @param deep     the maximum of threats
+     * @param deadline the time to stop at in milliseconds
+     * @return the index of the first move of the victory, or <code>-1</code> if
+     *         there is no such victory
+     */
+    public int solve(int color, int deep, long deadline) {
+        if (candidates.length <= deep) {
+            candidates = new int[deep + 1][board.getLength() * board.getLength()];
+            blocks = new int[deep + 1][2];
+        }
+        this.deadline = deadline;
+        this.stopped = false;
+        return attack(color, deep);
+    }
+
+    /**
+     * Searches the threats of the attacker <code>color</code> to move.
+     *
+     * @param color the attacking side
+     * @param deep  the threats left
+     * @return the index of the first move of the victory, or <code>-1</code> if
+     *         there is no such victory
+     */
+    private int attack(int color, int deep) {
+        int win = getFive(color, null);
+        if (win >= 0) {
+            return win;
+        }
+        if (deep == 0 || isStopped(deadline)) {
+            return -1;
+        }
+        long key = board.getZobrist(color);
+        int symmetry = board.getSymmetry();
+        int index = (int) key & (TABLE_SIZE - 1);
+        if (keys[index] == key && data[index] != 0) {
+            int record = data[index];
+            int recordDeep = record >> DEEP_SHIFT & 0xFF;
+            if ((record & 1) != 0 && recordDeep <= deep) {
+                return board.fromCanonical((record >> MOVE_SHIFT) - 1, symmetry);
+            } else if ((record & 1) == 0 && recordDeep >= deep) {
+                return -1;
+            }
+        }
+        int[] list = candidates[deep];
+        int size = 0;
+        int[] block = blocks[deep];
+        if (getFive(3 - color, block) >= 0) {
+            if (block[1] >= 0) {
+                return store(key, index, symmetry, deep, -1);
+            }
+            list[size++] = block[0];
+        } else {
+            for (int i = 0; i < frontier.size(); i++) {
+                list[size++] = frontier.get(i);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int x = list[i] >> 6;
+            int y = list[i] & 63;
+            if (getThreats(x, y, color, false) == 0 || !board.make(x, y, color)) {
+                continue;
+            }
+            int count = getThreats(x, y, color, true);
+            int result = -1;
+            if (count > 0 && getFive(3 - color, null) < 0) {
+                if (count >= 2) {
+                    result = list[i];
+                } else if (board.make(threats[0] >> 6, threats[0] & 63, 3 - color)) {
+                    if (attack(color, deep - 1) >= 0) {
+                        result = list[i];
+                    }
+                    board.unmake();
+                }
+            }
+            board.unmake();
+            if (result >= 0) {
+                return store(key, index, symmetry, deep, result);
+            }
+        }
+        return store(key, index, symmetry, deep, -1);
+    }
+
+    /**
+     * Records the result of a situation in the table, unless the search has been
+     * stopped.
+     *
+     * @param key      the zobrist key of the situation
+     * @param index    the index of the entry
+     * @param symmetry the symmetry to the canonical situation of the key
+     * @param deep     the threats left
+     * @param result   the index of the first move of the victory, or
+     *                 <code>-1</code>
+     * @return <code>result</code>
+     */
+    private int store(long key, int index, int symmetry, int deep, int result) {
+        if (!stopped) {
+            keys[index] = key;
+            data[index] = (board.toCanonical(result, symmetry) + 1) << MOVE_SHIFT | Math.min(deep, 0xFF) << DEEP_SHIFT
+                    | (result >= 0 ? 1 : 0);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the search should be stopped by <code>cancel</code>, which is
+     * asked on every node, or by <code>deadline</code>, which is read once in
+     * <code>POLL_INTERVAL</code> nodes.
+     *
+     * @param deadline the time to stop at in milliseconds
+     * @return <code>true</code> if the search is stopped, <code>false</code>
+     *         otherwise
+     */
+    private boolean isStopped(long deadline) {
+        if (!stopped && (cancel.getAsBoolean()
+                || (++polls & POLL_INTERVAL - 1) == 0 && System.currentTimeMillis() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Gets the reachable grids on which <code>color</code> can construct a
+     * continuous <code>6</code> via a single move.
+     *
+     * @param color the constructing color side
+     * @param found the array to receive the first <code>2</code> grids, with
+     *              <code>-1</code> for none, or <code>null</code>
+     * @return the index of the first grid, or <code>-1</code> if there is none
+     */
+    private int getFive(int color, int[] found) {
+        chequer.getCons6(color, mask);
+        int first = -1;
+        int second = -1;
+        for (int x = 0; x < mask.length && second < 0; x++) {
+            long word = mask[x];
+            while (word != 0 && second < 0) {
+                int y = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (frontier.isKnight(x, y)) {
+                    if (first < 0) {
+                        first = x << 6 | y;
+                    } else {
+                        second = x << 6 | y;
+                    }
+                }
+            }
+            if (found == null && first >= 0) {
+                break;
+            }
+        }
+        if (found != null) {
+            found[0] = first;
+            found[1] = second;
+        }
+        return first;
+    }
+
+    /**
+     * Gets the grids on which <code>color</code> can construct a continuous
+     * <code>6</code> through the grid <code>(x, y)</code> into
+     * <code>threats</code>, taking the grid as a chess piece of
+     * <code>color</code>.
+     *
+     * @param x         the x coordinate of the grid
+     * @param y         the y coordinate of the grid
+     * @param color     the constructing color side
+     * @param reachable <code>true</code> for only the grids reachable via a knight
+     *                  move
+     * @return the count of the different grids
+     */
+    private int getThreats(int x, int y, int color, boolean reachable) {
+        int count = 0;
+        for (Direction dir : Direction.get4Directions()) {
+            int stones = chequer.getLine(x, y, dir, color) | 1 << 6;
+            int blanks = chequer.getLine(x, y, dir, 0) & ~(1 << 6);
+            for (int s = 1; s <= 6; s++) {
+                int window = 0x3F << s;
+                if (Integer.bitCount(stones & window) == 5 && Integer.bitCount(blanks & window) == 1) {
+                    int k = Integer.numberOfTrailingZeros(blanks & window) - 6;
+                    int tx = x + dir.x * k;
+                    int ty = y + dir.y * k;
+                    int grid = tx << 6 | ty;
+                    boolean repeated = false;
+                    for (int i = 0; i < count; i++) {
+                        repeated |= threats[i] == grid;
+                    }
+                    if (!repeated && count < threats.length && (!reachable || frontier.isKnight(tx, ty))) {
+                        threats[count++] = grid;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -28,4 +28,20 @@ public enum Diagram {
         this.x = x;
         this.y = y;
     }
+
+    /**
+     * 8 diagrams of all, which is the same as <code>values()</code> but never
+     * copied.
+     */
+    private static Diagram[] _8Diagrams = values();
+
+    /**
+     * Gets all the 8 diagrams without copying the array as <code>values()</code>
+     * does. Never change it.
+     *
+     * @return 8 diagrams
+     */
+    public static Diagram[] get8Diagrams() {
+        return _8Diagrams;
+    }
 }
@@ -44,4 +44,20 @@ public enum Direction {
     public static Direction[] get4Directions() {
         return _4Directions;
     }
+
+    /**
+     * 8 directions of all, which is the same as <code>values()</code> but never
+     * copied.
+     */
+    private static Direction[] _8Directions = values();
+
+    /**
+     * Gets all the 8 directions without copying the array as
+     * <code>values()</code> does. Never change it.
+     *
+     * @return 8 directions
+     */
+    public static Direction[] get8Directions() {
+        return _8Directions;
+    }
 }
@@ -0,0 +1,1543 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <code>Engine</code> searches the moves of <strong>Knight Gobang 6</strong>
+ * without any user interface, which makes it usable by the desktop application
+ * and by any other client alike.
+ * <p>
+ * A client sets up the situation via <code>make(int)</code> and
+ * <code>unmake(int)</code> with the packed moves of <code>Move</code>, asks a
+ * move for a side via <code>search(int, SearchLimits)</code>, and may stop the
+ * search from another thread via <code>stop()</code>, or cancel a single request
+ * via the token of <code>search(int, SearchLimits, BooleanSupplier)</code>.
+ * After a move of its own, the client may ask <code>Engine</code> to ponder on
+ * the time of the other side via <code>ponder(int)</code>.
+ * <p>
+ * An <code>Engine</code> searches with helpers in parallel, each of which owns a
+ * copy of the chessboard and runs the same search in the bounded pool of worker
+ * threads shared by all the engines, with a varied depth and order. They share
+ * the cache, so the main search finds the situations the helpers have searched,
+ * and only the main search decides the move.
+ * <p>
+ * With more than one search thread, a tier worker searches the prior points
+ * while the main search and the helpers search the normal points, and the tier
+ * which finds a victory first cancels the other.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Move
+ * @see SearchLimits
+ * @see SearchResult
+ */
+public class Engine {
+    /**
+     * Records the value of equivalent victory when evaluating the board.
+     */
+    private static final int VICTORY_STANDARD = 800000;
+    /**
+     * Records the deeps of the robot player will evaluate to for prior and normal
+     * points in 3 difficulties.
+     */
+    private static final int[][] EVALUATE_DEEP = { { 5, 3 }, { 7, 5 }, { 9, 7 } };
+    /**
+     * Records the maximum of the evaluated points in each depth in 3 difficulties.
+     */
+    private static final int[] MAX_EVALUATE_POINTS_EACH_DEEP = { 12, 20, 32 };
+    /**
+     * Records the memory budget of the cache in megabytes in 3 difficulties.
+     */
+    private static final int[] CACHE_MEGABYTES = { 16, 32, 64 };
+    /**
+     * Records the time budget of a move in milliseconds in 3 difficulties.
+     */
+    private static final long[] TIME_BUDGET = { 2000, 5000, 10000 };
+    /**
+     * Records the node budget of a move in 3 difficulties.
+     */
+    private static final long[] NODE_BUDGET = { 200000, 500000, 1000000 };
+    /**
+     * Records the maximum of threats the threat search goes in 3 difficulties.
+     */
+    private static final int[] THREAT_DEEP = { 8, 10, 12 };
+    /**
+     * Records the count of predicted replies of the other side searched on its
+     * time in 3 difficulties.
+     */
+    private static final int[] PONDER_COUNT = { 3, 4, 5 };
+    /**
+     * Records the maximum value of interger, which is <code>2^31-1</code>.
+     */
+    private static final int MAX_VALUE = Integer.MAX_VALUE;
+    /**
+     * Records the minimum value of a search, which is <code>-(2^31-1)</code>, so
+     * that it can be negated safely.
+     */
+    private static final int MIN_VALUE = -Integer.MAX_VALUE;
+    /**
+     * Records the minimum half width of the aspiration window around the value of
+     * the former iteration.
+     */
+    private static final int ASPIRATION_WINDOW = 256;
+    /**
+     * Records the bits of the index of a point in an order key.
+     */
+    private static final int INDEX_BITS = 12;
+    /**
+     * Records the offset of the history part in an order key.
+     */
+    private static final int HISTORY_SHIFT = 43;
+    /**
+     * Records the maximum of the history part in an order key.
+     */
+    private static final int HISTORY_MAX = (1 << 18) - 1;
+    /**
+     * Records the offset of the rank part in an order key, <code>3</code> for the
+     * point in <code>cache</code>, <code>2</code> for a killer point,
+     * <code>1</code> for the others.
+     */
+    private static final int RANK_SHIFT = 61;
+    /**
+     * Records how many checks of the budget read the clock once, which is a power
+     * of <code>2</code>.
+     */
+    private static final int POLL_INTERVAL = 16;
+    /**
+     * Records the cancellation token which is never cancelled, for a request
+     * without one and for the ponder.
+     */
+    private static final BooleanSupplier NEVER = () -> false;
+    /**
+     * Records the bounded pool of worker threads shared by all the
+     * <code>Engine</code>s, one for each processor, which runs the helpers, the
+     * tier workers and the ponders. Its tasks never wait for each other.
+     */
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), Thread.ofPlatform().name("Worker-", 0).daemon().factory());
+    /**
+     * Records the chess side current search or ponder is for.
+     * <p>
+     * <code>1</code> is for black, <code>2</code> is for white.
+     */
+    private int color;
+    /**
+     * Records the difficulty <code>Engine</code> is in: <code>0</code> for
+     * normal, <code>1</code> for hard, <code>2</code> for impossible.
+     */
+    private final int difficulty;
+    /**
+     * Records the chessboard's length of current match.
+     */
+    private final int length;
+    /**
+     * Records the deep of the robot player will evaluate for prior and normal
+     * points in current match.
+     */
+    private final int[] deep;
+    /**
+     * Records the deep of current iteration for prior and normal points, which
+     * grows to <code>deep</code> in iterative deepening.
+     */
+    private final int[] searchDeep;
+    /**
+     * Records the count of nodes searched in current move.
+     */
+    private long nodes;
+    /**
+     * Records the node budget of current iteration.
+     */
+    private long nodeLimit;
+    /**
+     * Records the time current iteration must stop at in milliseconds.
+     */
+    private long deadline;
+    /**
+     * Records if the search can be stopped, which is <code>false</code> until the
+     * first iteration completes.
+     */
+    private boolean stoppable;
+    /**
+     * Records if the search has been stopped by the budget or by
+     * <code>abort</code>, after which only the children searched in full count.
+     */
+    private boolean stopped;
+    /**
+     * Records the count of calls of <code>isStopped()</code>, which decides when
+     * to read the clock.
+     */
+    private int polls;
+    /**
+     * Records the candidate points of each ply in search order. Each one is an
+     * order key negated, so that an ascending sort puts the best first, with the
+     * index of the point in the lowest <code>INDEX_BITS</code> bits.
+     */
+    private final long[][] moves;
+    /**
+     * Records the <code>2</code> latest points which caused a cut-off in each ply,
+     * <code>-1</code> for none.
+     */
+    private final int[][] killers;
+    /**
+     * Records how often each point caused a cut-off, weighted by the depth.
+     * <p>
+     * The <code>1st</code> dimension indicates the side to move, <code>0</code>
+     * for black, <code>1</code> for white;
+     * <p>
+     * The <code>2nd</code> dimension indicates the index of the point.
+     */
+    private final int[][] historyScore;
+    /**
+     * Records the latest stamp each point was listed with, which avoids listing a
+     * point twice in a ply.
+     */
+    private final int[] listStamp;
+    /**
+     * Records the stamp of current listing.
+     */
+    private int stamp;
+    /**
+     * Records the order of the search thread, <code>0</code> for the main search,
+     * <code>-1</code> for the tier worker and positive for a helper.
+     */
+    private final int id;
+    /**
+     * Records the helpers which search the normal points in parallel, empty for a
+     * helper itself.
+     */
+    private final Engine[] helpers;
+    /**
+     * Records the tier worker, which searches the prior points while the main
+     * search searches the normal points, <code>null</code> for a single-threaded
+     * search or a search thread other than the main search.
+     */
+    private final Engine tierWorker;
+    /**
+     * Records the helpers and the tier worker, each of which follows the moves of
+     * the main search on its own chessboard.
+     */
+    private final Engine[] workers;
+    /**
+     * Records the evaluated value of each point of the root for the side to move,
+     * which is shared by the main search, the tier worker and the helpers, so that
+     * each point of the root is evaluated once in a move.
+     */
+    private int[] rootValues;
+    /**
+     * Records the reachable points of the root as negated order keys like
+     * <code>moves</code>, for the threat search and the ponder to pick their
+     * candidates from.
+     */
+    private final long[] rootList;
+    /**
+     * Records if the helper is asked to abort current search by the main search,
+     * the tier is cancelled by a victory of the other tier, the ponder is asked
+     * to abort by a move or a retraction, or the search is asked to stop by the
+     * client.
+     */
+    private volatile boolean abort;
+    /**
+     * Records if current search is asked to stop by the client. It is kept until
+     * the next <code>make(int)</code> or <code>unmake(int)</code>, so that a stop
+     * before the search starts is not lost.
+     */
+    private volatile boolean cancelled;
+    /**
+     * Records the cancellation token of current request, which is checked with
+     * <code>abort</code>.
+     */
+    private BooleanSupplier cancel;
+    /**
+     * Records the random generator which varies the order of a helper.
+     */
+    private final Random random;
+    /**
+     * Records the maximum of evaluated points in current match.
+     */
+    private final int maxEvalPointCount;
+    /**
+     * Records the step(s) the current situation has passed.
+     */
+    private int step;
+    /**
+     * Records the cache of all situations appeared in the current match.
+     */
+    private ChequerCache cache;
+    /**
+     * Records the whole situation of the chessboard, including the final moves
+     * and the trial moves in a search.
+     */
+    private final ChequerBoard board;
+    /**
+     * Points to the situation of each grid of <code>board</code> in bitsets.
+     */
+    private final Bitboard chequer;
+    /**
+     * Records the bitset of the grids found by word-parallel methods of
+     * <code>chequer</code>.
+     */
+    private long[] mask;
+    /**
+     * Points to the grids those are in situations of reachable blank of
+     * <code>board</code>.
+     */
+    private final ChequerFrontier frontier;
+    /**
+     * Records the threat search on <code>board</code>, <code>null</code> for a
+     * helper.
+     */
+    private final ChequerThreat threat;
+    /**
+     * Records the opening book of current chessboard length, <code>null</code> if
+     * there is none or for a helper.
+     */
+    private final ChequerBook book;
+    /**
+     * Records if <code>Engine</code> ponders on the time of the other side.
+     */
+    private boolean ponderFlag;
+    /**
+     * Records the task of <code>Engine</code> in <code>WORKERS</code>, which is a
+     * helper's or the tier worker's search, or the ponder, <code>null</code> if
+     * there is none.
+     */
+    private CompletableFuture<Void> task;
+    /**
+     * Records the work of <code>task</code>.
+     */
+    private Runnable work;
+    /**
+     * Records <code>task</code> until a worker thread or <code>join()</code>
+     * takes it, so that its work runs only once.
+     */
+    private final AtomicReference<CompletableFuture<Void>> pending;
+    /**
+     * Records if the ponder has been started and not stopped.
+     */
+    private boolean ponder;
+    /**
+     * Records the zobrist keys of the situations after the predicted replies, with
+     * the pondering side to move.
+     */
+    private final long[] ponderKeys;
+    /**
+     * Records the moves found for the situations in <code>ponderKeys</code>, as
+     * the indexes of their images in the canonical situations.
+     */
+    private final int[] ponderMoves;
+    /**
+     * Records the indexes of the predicted replies of current ponder.
+     */
+    private final int[] ponderReplies;
+    /**
+     * Records the count of the completed predicted replies.
+     */
+    private int ponderCount;
+    /**
+     * Constructs a new <code>Engine</code> on a blank chessboard of the length
+     * <code>length</code>, which searches as the difficulty <code>difficulty</code>
+     * with <code>threads</code> search threads.
+     *
+     * @param length     the length of chequer, no more than
+     *                   <code>ChequerStatus.MAX_LENGTH</code>
+     * @param difficulty <code>0</code> for normal, <code>1</code> for hard,
+     *                   <code>2</code> for impossible
+     * @param threads    the count of search threads, including the main search
+     */
+    public Engine(int length, int difficulty, int threads) {
+        this(length, difficulty, threads, getDefaultCacheMegabytes(difficulty));
+    }
+
+    /**
+     * Constructs a new <code>Engine</code> as <code>Engine(int, int, int)</code>,
+     * whose cache takes at most <code>cacheMegabytes</code> of memory. Many
+     * engines in a process can so share the memory with smaller caches.
+     *
+     * @param length         the length of chequer, no more than
+     *                       <code>ChequerStatus.MAX_LENGTH</code>
+     * @param difficulty     <code>0</code> for normal, <code>1</code> for hard,
+     *                       <code>2</code> for impossible
+     * @param threads        the count of search threads, including the main
+     *                       search
+     * @param cacheMegabytes the memory budget of the cache in megabytes
+     */
+    public Engine(int length, int difficulty, int threads, int cacheMegabytes) {
+        this(length, difficulty, threads, new ChequerCache(cacheMegabytes), 0);
+    }
+
+    /**
+     * Constructs a new <code>Engine</code> on a blank chessboard, which searches
+     * with the cache <code>cache</code> as the <code>id</code>th search thread.
+     *
+     * @param length     the length of chequer
+     * @param difficulty the difficulty
+     * @param threads    the count of search threads
+     * @param cache      the cache shared by all the search threads
+     * @param id         the order of the search thread, <code>0</code> for the
+     *                   main search
+     */
+    private Engine(int length, int difficulty, int threads, ChequerCache cache, int id) {
+        if (length <= 0 || length > ChequerStatus.MAX_LENGTH) {
+            throw new IllegalArgumentException("Length " + length + " is out of range.");
+        } else if (difficulty < 0 || difficulty >= EVALUATE_DEEP.length) {
+            throw new IllegalArgumentException("Difficulty " + difficulty + " is out of range.");
+        }
+        this.color = 1;
+        this.difficulty = difficulty;
+        this.length = length;
+        this.deep = EVALUATE_DEEP[difficulty];
+        this.searchDeep = new int[2];
+        this.maxEvalPointCount = MAX_EVALUATE_POINTS_EACH_DEEP[difficulty];
+        this.step = 0;
+        this.cache = cache;
+        this.board = new ChequerBoard(length);
+        this.chequer = board.getChequer();
+        this.mask = new long[length];
+        this.frontier = board.getFrontier();
+        this.threat = id == 0 ? new ChequerThreat(board, () -> abort || cancel.getAsBoolean()) : null;
+        this.book = id == 0 ? ChequerBook.get(length) : null;
+        this.id = id;
+        this.tierWorker = id == 0 && threads >= 2 ? new Engine(length, difficulty, threads, this.cache, -1) : null;
+        this.helpers = new Engine[id == 0 ? Math.max(0, threads - (tierWorker == null ? 1 : 2)) : 0];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Engine(length, difficulty, threads, this.cache, i + 1);
+        }
+        this.workers = Arrays.copyOf(helpers, helpers.length + (tierWorker == null ? 0 : 1));
+        if (tierWorker != null) {
+            workers[helpers.length] = tierWorker;
+        }
+        this.rootValues = new int[length << 6];
+        for (Engine worker : workers) {
+            worker.rootValues = rootValues;
+        }
+        this.abort = false;
+        this.cancelled = false;
+        this.cancel = NEVER;
+        this.random = new Random(id);
+        this.moves = new long[deep[0]][length * length];
+        this.rootList = new long[length * length];
+        this.killers = new int[deep[0]][2];
+        this.historyScore = new int[2][length << 6];
+        this.listStamp = new int[length << 6];
+        this.stamp = 0;
+        this.ponderFlag = true;
+        this.task = null;
+        this.work = null;
+        this.pending = new AtomicReference<>();
+        this.ponder = false;
+        this.ponderKeys = new long[PONDER_COUNT[difficulty]];
+        this.ponderMoves = new int[PONDER_COUNT[difficulty]];
+        this.ponderReplies = new int[PONDER_COUNT[difficulty]];
+        this.ponderCount = 0;
+    }
+
+    /**
+     * Returns the memory budget of the cache in megabytes by default in the
+     * difficulty <code>difficulty</code>.
+     *
+     * @param difficulty <code>0</code> for normal, <code>1</code> for hard,
+     *                   <code>2</code> for impossible
+     * @return the memory budget in megabytes
+     * @throws IllegalArgumentException if the difficulty is out of range
+     */
+    public static int getDefaultCacheMegabytes(int difficulty) {
+        if (difficulty < 0 || difficulty >= CACHE_MEGABYTES.length) {
+            throw new IllegalArgumentException("Difficulty " + difficulty + " is out of range.");
+        }
+        return CACHE_MEGABYTES[difficulty];
+    }
+
+    /**
+     * Returns the chessboard's length.
+     *
+     * @return length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the step(s) the current situation has passed.
+     *
+     * @return step
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the budgets of a move in the difficulty of <code>Engine</code>.
+     *
+     * @return the default limits
+     */
+    public SearchLimits getDefaultLimits() {
+        return new SearchLimits(TIME_BUDGET[difficulty], NODE_BUDGET[difficulty]);
+    }
+
+    /**
+     * Sets if <code>Engine</code> ponders on the time of the other side. If not,
+     * <code>ponder(int)</code> does nothing.
+     *
+     * @param ponderFlag <code>true</code> to ponder, <code>false</code> otherwise
+     */
+    public void setPonder(boolean ponderFlag) {
+        this.ponderFlag = ponderFlag;
+    }
+
+    /**
+     * Checks if the point <code>p</code> is reachable via a knight move.
+     *
+     * @param p the goal point
+     * @return <code>true</code> if the point is reachable, <code>false</code>
+     *         otherwise
+     */
+    private boolean isKnight(Point p) {
+        return frontier.isKnight(p.x, p.y);
+    }
+
+    /**
+     * Returns if there is a constructed <code>5</code> in a search.
+     *
+     * @param color the constructing color side
+     * @return <code>true</code> if there is a constructed <code>5</code>,
+     *         <code>false</code> otherwise
+     */
+    public boolean isCons5(int color) {
+        chequer.getCons6(color, mask);
+        return chequer.any(mask);
+    }
+
+    /**
+     * Checks if the point <code>(x, y)</code> can construct two lines of
+     * <code>4</code> and <code>5</code> in a search, that is, if at least
+     * <code>2</code> of its directions have a value.
+     *
+     * @param x     the x coordinate of the goal point
+     * @param y     the y coordinate of the goal point
+     * @param color the constructing color side
+     * @return <code>true</code> if the point can construct them,
+     *         <code>false</code> otherwise
+     */
+    private boolean isConsX(int x, int y, int color) {
+        int count = 0;
+        for (Direction dir : Direction.get4Directions()) {
+            if (getConsDist(x, y, dir, color) > 0 && ++count == 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the value of the line through the point <code>(x, y)</code> in the
+     * direction <code>dir</code> if <code>color</code> moves there: <code>5</code>
+     * for a <code>5</code>, <code>3</code> for an open <code>4</code>,
+     * <code>0</code> otherwise.
+     *
+     * @param x     the x coordinate of the goal point
+     * @param y     the y coordinate of the goal point
+     * @param dir   appointed direction
+     * @param color the constructing color side
+     * @return the value of the line
+     */
+    private int getConsDist(int x, int y, Direction dir, int color) {
+        int left = 0;
+        int right = 0;
+        int blankL = 0;
+        int blankR = 0;
+        for (int k = -1; k >= -5; k--) {
+            int kColor = chequer.get(x + dir.x * k, y + dir.y * k);
+            if (kColor == color) {
+                left++;
+            } else if (kColor == 0) {
+                blankL++;
+            } else {
+                break;
+            }
+        }
+        for (int k = 1; k <= 5; k++) {
+            int kColor = chequer.get(x + dir.x * k, y + dir.y * k);
+            if (kColor == color) {
+                right++;
+            } else if (kColor == 0) {
+                blankR++;
+            } else {
+                break;
+            }
+        }
+        if (left + right >= 4 && blankL + blankR <= 1) {
+            return 5;
+        } else if (left + right >= 3 && blankL + blankR <= 1) {
+            int l = -left - blankL - 1;
+            int r = right + blankR + 1;
+            if (chequer.get(x + dir.x * l, y + dir.y * l) == 0
+                    && chequer.get(x + dir.x * r, y + dir.y * r) == 0) {
+                return 3;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the suitable quantity of evaluated point according to
+     * <code>expectValue</code> and current <code>actualValue</code>.
+     *
+     * @param expectValue the expected quantity for evaluating
+     * @param actualValue the actual quantity for evaluating
+     * @return the final quantity for evaluating
+     */
+    private int getEvaluateCount(int expectValue, int actualValue) {
+        return Integer.max(actualValue / 5, Integer.min(expectValue, actualValue));
+    }
+
+    /**
+     * Gets the color of the point <code>p</code>.
+     *
+     * @param p the point whose color is to be got
+     * @return the goal color to be got, <code>-1</code> for a null point
+     */
+    private byte get(Point p) {
+        return p == null ? -1 : (byte) chequer.get(p.x, p.y);
+    }
+
+    /**
+     * Evaluates current point <code>(px, py)</code> of the situation. It reads
+     * only the primitive grids, so it allocates nothing.
+     *
+     * @param px        the x coordinate of the point to evaluate
+     * @param py        the y coordinate of the point to evaluate
+     * @param selfColor the side of player itself
+     * @return the final score of current point
+     */
+    private int evaluatePoint(int px, int py, int selfColor) {
+        return evaluatePoint(px, py, selfColor, 1) + evaluatePoint(px, py, selfColor, 2);
+    }
+
+    /**
+     * Evaluates current point <code>(px, py)</code> of the situation for one side
+     * <code>evalColor</code>.
+     *
+     * @param px        the x coordinate of the point to evaluate
+     * @param py        the y coordinate of the point to evaluate
+     * @param selfColor the side of player itself
+     * @param evalColor the side to evaluate
+     * @return the score for one side of current point
+     */
+    private int evaluatePoint(int px, int py, int selfColor, int evalColor) {
+        long result = 0;
+        for (Direction dir : Direction.get4Directions()) {
+            boolean head = false;
+            boolean tail = false;
+            int left = 0;
+            int right = 0;
+            int leftBits = 0;
+            int rightBits = 0;
+            int blank = 0;
+            for (int i = 1; i <= 6; i++) {
+                int x = px - dir.x * i;
+                int y = py - dir.y * i;
+                int grid = chequer.get(x, y);
+                if (grid != evalColor && grid != 0) {
+                    head = true;
+                    break;
+                } else if (grid != 0) {
+                    leftBits |= 1 << left;
+                } else if (!frontier.isKnight(x, y)) {
+                    blank++;
+                }
+                left++;
+            }
+            for (int i = 1; i <= 6; i++) {
+                int x = px + dir.x * i;
+                int y = py + dir.y * i;
+                int grid = chequer.get(x, y);
+                if (grid != evalColor && grid != 0) {
+                    tail = true;
+                    break;
+                } else if (grid != 0) {
+                    rightBits |= 1 << right;
+                } else if (!frontier.isKnight(x, y)) {
+                    blank++;
+                }
+                right++;
+            }
+            result += ChequerPattern.getPointScore(head, tail, left, leftBits, right, rightBits)
+                    * ChequerPattern.getBlankFactor(blank) >> ChequerPattern.FACTOR_BITS;
+        }
+        if (selfColor != evalColor) {
+            result = result * ChequerPattern.OPPONENT_FACTOR >> ChequerPattern.FACTOR_BITS;
+        }
+        return (int) Math.min(result >> ChequerPattern.SCALE_BITS, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Evaluates current situation of the match in the view of
+     * <code>selfColor</code>.
+     *
+     * @param selfColor the side of player itself
+     * @return the final score of current situation
+     */
+    private int evaluateBoard(int selfColor) {
+        return board.getScore(selfColor) - board.getScore(3 - selfColor);
+    }
+
+    /**
+     * Lists the must-respond points into <code>list</code> as negated order keys,
+     * each only once, and returns the count of them.
+     * <p>
+     * The points are listed by kind, walking the bitsets of <code>chequer</code>
+     * without any object:
+     * <p>
+     * first the points where the chess of <code>color</code>, then of
+     * <code>3 - color</code>, can construct a continuous <code>6</code> via a
+     * single move;
+     * <p>
+     * then the points where the chess of <code>color</code>, then of
+     * <code>3 - color</code>, can construct two crossed lines of <code>4</code>
+     * or <code>5</code>, which are also the ways to stop them.
+     * <p>
+     * Only the points reachable via a knight move are listed.
+     *
+     * @param list the order keys to fill
+     * @param side the side to move
+     * @return the count of the listed points
+     */
+    private int listPriorPoints(long[] list, int side) {
+        int size = 0;
+        chequer.getCons6(color, mask);
+        size = listPriorPoints(list, size, side, 0);
+        chequer.getCons6(3 - color, mask);
+        size = listPriorPoints(list, size, side, 0);
+        chequer.getNearby(mask);
+        size = listPriorPoints(list, size, side, color);
+        return listPriorPoints(list, size, side, 3 - color);
+    }
+
+    /**
+     * Lists the points in <code>mask</code> into <code>list</code> from
+     * <code>size</code> on as <code>listPriorPoints(long[], int)</code>, and
+     * returns the new count.
+     *
+     * @param list  the order keys to fill
+     * @param size  the count of the listed points
+     * @param side  the side to move
+     * @param consX <code>0</code> for all the points, or the constructing color
+     *              side of the points to keep by <code>isConsX</code>
+     * @return the count of the listed points
+     */
+    private int listPriorPoints(long[] list, int size, int side, int consX) {
+        for (int x = 0; x < length; x++) {
+            long word = mask[x];
+            while (word != 0) {
+                int y = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int index = x << 6 | y;
+                if (frontier.isKnight(x, y) && listStamp[index] != stamp && (consX == 0 || isConsX(x, y, consX))) {
+                    listStamp[index] = stamp;
+                    list[size++] = -((long) evaluateOrder(x, y, side, true) << INDEX_BITS | index);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Evaluates the point <code>(x, y)</code> for the order of a search. A helper
+     * varies the value slightly, so that it searches in a different order. A
+     * reachable point of the root takes its value in <code>rootValues</code>.
+     *
+     * @param x         the x coordinate of the point to evaluate
+     * @param y         the y coordinate of the point to evaluate
+     * @param selfColor the side of player itself
+     * @param root      <code>true</code> if the point is of the root
+     * @return the order value of current point
+     */
+    private int evaluateOrder(int x, int y, int selfColor, boolean root) {
+        int value = root && frontier.contains(x, y) ? rootValues[x << 6 | y] : evaluatePoint(x, y, selfColor);
+        return id <= 0 ? value : value - random.nextInt(value / 8 + 1);
+    }
+
+    /**
+     * Lists the candidate points of the ply into <code>moves</code> in search
+     * order, and returns the count of them to search.
+     * <p>
+     * The points are first sorted by the evaluated value, and only the suitable
+     * quantity of the best ones are kept, together with the point in
+     * <code>cache</code> and the killer points. The kept ones are then sorted
+     * again: the point in <code>cache</code> goes first, then the killer points,
+     * then the points by the history, and the evaluated value breaks ties. For the
+     * last step, only the point in <code>cache</code> is moved ahead of the best
+     * evaluated one.
+     *
+     * @param tier     <code>0</code> for prior points, <code>1</code> for normal
+     *                 points
+     * @param side     the side to move
+     * @param leftStep the step(s) to be evaluated
+     * @param hashMove the index of the best point in <code>cache</code>, or
+     *                 <code>-1</code> if it doesn't exist
+     * @return the count of the points to search
+     */
+    private int orderMoves(int tier, int side, int leftStep, int hashMove) {
+        int ply = searchDeep[tier] - leftStep;
+        long[] list = moves[ply];
+        int[] killer = killers[ply];
+        int size = 0;
+        boolean root = leftStep == searchDeep[tier];
+        stamp++;
+        if (tier == 0 && root) {
+            size = listPriorPoints(list, side);
+        } else {
+            for (int i = 0; i < frontier.size(); i++) {
+                int index = frontier.get(i);
+                list[size++] = -((long) evaluateOrder(index >> 6, index & 63, side, root) << INDEX_BITS | index);
+            }
+        }
+        Arrays.sort(list, 0, size);
+        int count = size == 0 ? 0 : getEvaluateCount(maxEvalPointCount, size);
+        for (int i = count; i < size; i++) {
+            int index = getIndex(list[i]);
+            if (index == hashMove || index == killer[0] || index == killer[1]) {
+                long temp = list[count];
+                list[count++] = list[i];
+                list[i] = temp;
+            }
+        }
+        if (leftStep == 1) {
+            for (int i = 1; i < count; i++) {
+                if (getIndex(list[i]) == hashMove) {
+                    long temp = list[0];
+                    list[0] = list[i];
+                    list[i] = temp;
+                }
+            }
+            return count;
+        }
+        for (int i = 0; i < count; i++) {
+            int index = getIndex(list[i]);
+            long rank = index == hashMove ? 3 : index == killer[0] || index == killer[1] ? 2 : 1;
+            long history = Math.min(historyScore[side - 1][index], HISTORY_MAX);
+            list[i] = -(rank << RANK_SHIFT | history << HISTORY_SHIFT | -list[i] & (1L << HISTORY_SHIFT) - 1);
+        }
+        Arrays.sort(list, 0, count);
+        return count;
+    }
+
+    /**
+     * Checks if the point <code>index</code> is nearer to the middle of the
+     * chessboard than the point <code>than</code>, as
+     * <code>Point.nearMidThan(Point)</code> without the points.
+     *
+     * @param index the index of the point
+     * @param than  the index of the compared point
+     * @return <code>true</code> if it is nearer, <code>false</code> otherwise
+     */
+    private boolean nearMidThan(int index, int than) {
+        int mid = length / 2;
+        return Math.max(Math.abs((index >> 6) - mid), Math.abs((index & 63) - mid)) < Math
+                .max(Math.abs((than >> 6) - mid), Math.abs((than & 63) - mid));
+    }
+
+    /**
+     * Returns the index of the point in a negated order key.
+     *
+     * @param key the negated order key
+     * @return the index of the point
+     */
+    private int getIndex(long key) {
+        return (int) (-key & (1 << INDEX_BITS) - 1);
+    }
+
+    /**
+     * Records the point with the index <code>index</code> which caused a cut-off
+     * as a killer point of the ply and in the history.
+     *
+     * @param ply      the ply of the cut-off
+     * @param side     the side to move
+     * @param leftStep the step(s) left in the search
+     * @param index    the index of the point
+     */
+    private void recordCutoff(int ply, int side, int leftStep, int index) {
+        int[] killer = killers[ply];
+        if (killer[0] != index) {
+            killer[1] = killer[0];
+            killer[0] = index;
+        }
+        historyScore[side - 1][index] = Math.min(historyScore[side - 1][index] + leftStep * leftStep, HISTORY_MAX);
+    }
+
+    /**
+     * Checks if the search should be stopped because the time budget or the node
+     * budget of current iteration is used up, the main search asks the helper to
+     * abort, or the request is cancelled.
+     * <p>
+     * <code>abort</code>, the token and the node budget are checked on every
+     * call, while the clock is read once in <code>POLL_INTERVAL</code> calls.
+     *
+     * @return <code>true</code> if the search is stopped, <code>false</code>
+     *         otherwise
+     */
+    private boolean isStopped() {
+        if (!stopped && (abort || cancel.getAsBoolean() || stoppable && (nodes >= nodeLimit
+                || (++polls & POLL_INTERVAL - 1) == 0 && System.currentTimeMillis() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Puts the pair of point and value into <code>cache</code>, unless the search
+     * has been stopped and the value is incomplete.
+     *
+     * @param key      key of the situation
+     * @param symmetry the symmetry to the canonical situation of the key
+     * @param pv       the packed pair of point and value
+     * @param leftStep the step(s) left in the search
+     * @param flag     flag of the value
+     */
+    private void store(long key, int symmetry, long pv, int leftStep, int flag) {
+        if (!stopped) {
+            cache.put(key, board.toCanonical(PointAndValue.getIndex(pv), symmetry), PointAndValue.getValue(pv),
+                    leftStep, flag);
+        }
+    }
+
+    /**
+     * Searches with iterative deepening from <code>1</code> to the deep of
+     * <code>tier</code> until the budget is used up, and returns the result of the
+     * deepest completed iteration. Each iteration puts its best points into
+     * <code>cache</code>, which go first in the next iteration.
+     * <p>
+     * Each iteration starts with an aspiration window around the value of the
+     * former one, and searches again with the window opened on the failed side if
+     * the value falls out of it. A helper with an odd order starts from
+     * <code>3</code>, so that it goes a deep ahead.
+     * <p>
+     * An iteration which is stopped is discarded, unless no iteration has
+     * completed yet, in which case the best of the moves searched in full is kept.
+     *
+     * @param tier      <code>0</code> for prior points, <code>1</code> for normal
+     *                  points
+     * @param deadline  the time to stop at in milliseconds
+     * @param nodeLimit the node budget
+     * @return the step which causes a maximum value, with point and its
+     *         corresponding value packed, or <code>PointAndValue.NONE</code>
+     */
+    private long iterate(int tier, long deadline, long nodeLimit) {
+        this.deadline = deadline;
+        this.nodeLimit = nodeLimit;
+        this.stoppable = false;
+        this.stopped = false;
+        for (int[] killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        for (int[] scores : historyScore) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 1;
+            }
+        }
+        long result = PointAndValue.NONE;
+        for (int d = Math.min(id > 0 ? 1 + 2 * (id % 2) : 1, deep[tier]); d <= deep[tier]; d += 2) {
+            searchDeep[tier] = d;
+            int alpha = MIN_VALUE;
+            int beta = MAX_VALUE;
+            int value = PointAndValue.getValue(result);
+            if (result != PointAndValue.NONE && Math.abs(value) < VICTORY_STANDARD) {
+                int window = Math.max(ASPIRATION_WINDOW, Math.abs(value) / 8);
+                alpha = value - window;
+                beta = value + window;
+            }
+            long iterResult = negamax(tier, color, d, alpha, beta);
+            while (!stopped && iterResult != PointAndValue.NONE && (PointAndValue.getValue(iterResult) <= alpha
+                    || PointAndValue.getValue(iterResult) >= beta)) {
+                if (PointAndValue.getValue(iterResult) <= alpha) {
+                    alpha = MIN_VALUE;
+                } else {
+                    beta = MAX_VALUE;
+                }
+                iterResult = negamax(tier, color, d, alpha, beta);
+            }
+            if (stopped) {
+                if (result == PointAndValue.NONE) {
+                    result = iterResult;
+                }
+                break;
+            }
+            result = iterResult;
+            stoppable = true;
+            if (result == PointAndValue.NONE || PointAndValue.getValue(result) > VICTORY_STANDARD) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the move of current situation in the opening book, which is mapped
+     * back from the canonical situation.
+     *
+     * @return the move, or <code>null</code> if there is no book or the situation
+     *         is not in it
+     */
+    private Point getBookMove() {
+        if (book == null) {
+            return null;
+        }
+        int move = book.probe(board.getZobrist(color));
+        if (move < 0) {
+            return null;
+        }
+        Point p = Point.index2P(board.fromCanonical(move, board.getSymmetry()));
+        return get(p) == 0 && isKnight(p) ? p : null;
+    }
+
+    /**
+     * Returns the move found by the threat search, which is a victory via
+     * continuous threats, or a defence against such a victory of the other side.
+     * The defence is the first point, in the order of the evaluated value, after
+     * which the other side has no such victory.
+     *
+     * @param deadline the time to stop at in milliseconds
+     * @return the move, or <code>null</code> if there is no forced move or the
+     *         search is stopped
+     */
+    private Point getThreatMove(long deadline) {
+        int win = threat.solve(color, THREAT_DEEP[difficulty], deadline);
+        if (win >= 0) {
+            return Point.index2P(win);
+        }
+        int loss = threat.solve(3 - color, THREAT_DEEP[difficulty], deadline);
+        if (loss < 0) {
+            return null;
+        }
+        int size = listRoot(color, loss);
+        for (int i = 0; i < maxEvalPointCount && i < size; i++) {
+            int index = getIndex(rootList[i]);
+            board.make(index >> 6, index & 63, color);
+            int result = threat.solve(3 - color, THREAT_DEEP[difficulty], deadline);
+            board.unmake();
+            if (threat.isStopped()) {
+                return null;
+            } else if (result < 0) {
+                return Point.index2P(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists the reachable points into <code>rootList</code>, sorted by the
+     * evaluated value for <code>side</code> as <code>orderMoves</code> does, with
+     * the point <code>first</code> ahead of all, and returns the count of them.
+     *
+     * @param side  the side to evaluate for
+     * @param first the index of the point to put first, or <code>-1</code> for
+     *              none
+     * @return the count of the listed points
+     */
+    private int listRoot(int side, int first) {
+        int size = 0;
+        for (int i = 0; i < frontier.size(); i++) {
+            int index = frontier.get(i);
+            int value = index == first ? MAX_VALUE : evaluatePoint(index >> 6, index & 63, side);
+            rootList[size++] = -((long) value << INDEX_BITS | index);
+        }
+        Arrays.sort(rootList, 0, size);
+        return size;
+    }
+
+    /**
+     * Searches with iterative deepening as <code>iterate</code>, while the helpers
+     * search the same tier until the main search completes.
+     *
+     * @param tier      <code>0</code> for prior points, <code>1</code> for normal
+     *                  points
+     * @param deadline  the time to stop at in milliseconds
+     * @param nodeLimit the node budget
+     * @return the step which causes a maximum value, with point and its
+     *         corresponding value packed, or <code>PointAndValue.NONE</code>
+     */
+    private long search(int tier, long deadline, long nodeLimit) {
+        for (Engine helper : helpers) {
+            helper.fork(() -> helper.iterate(tier, Long.MAX_VALUE, Long.MAX_VALUE));
+        }
+        long result = iterate(tier, deadline, nodeLimit);
+        for (Engine helper : helpers) {
+            helper.abort = true;
+        }
+        for (Engine helper : helpers) {
+            helper.join();
+        }
+        return result;
+    }
+
+    /**
+     * Searches the prior points and the normal points with the budgets
+     * <code>limits</code>, and returns the better one of their results.
+     * <p>
+     * With a tier worker, the tier worker searches the prior points while the main
+     * search and the helpers search the normal points, so that a move takes as
+     * long as the longer tier. A tier which finds a victory cancels the other at
+     * once. Otherwise the tiers are searched in turn.
+     *
+     * @param limits   the budgets of the move
+     * @param parallel <code>true</code> for searching with the tier worker and the
+     *                 helpers, <code>false</code> for the main search only
+     * @return the move with its value packed, or <code>PointAndValue.NONE</code>
+     *         if neither search has a result
+     */
+    private long searchMove(SearchLimits limits, boolean parallel) {
+        long start = System.currentTimeMillis();
+        long priorDeadline = start + limits.time / 2;
+        long deadline = start + limits.time;
+        nodes = 0;
+        for (int i = 0; i < frontier.size(); i++) {
+            int index = frontier.get(i);
+            rootValues[index] = evaluatePoint(index >> 6, index & 63, color);
+        }
+        for (Engine worker : workers) {
+            worker.nodes = 0;
+            worker.color = color;
+            worker.abort = abort;
+            worker.cancel = cancel;
+        }
+        long priorityResult;
+        long searchResult;
+        if (parallel && tierWorker != null) {
+            long[] tierResult = new long[1];
+            tierWorker.fork(() -> {
+                tierResult[0] = tierWorker.iterate(0, priorDeadline, limits.nodes / 2);
+                if (tierResult[0] != PointAndValue.NONE && PointAndValue.getValue(tierResult[0]) > VICTORY_STANDARD) {
+                    abort = true;
+                    for (Engine helper : helpers) {
+                        helper.abort = true;
+                    }
+                }
+            });
+            searchResult = search(1, deadline, limits.nodes);
+            if (searchResult != PointAndValue.NONE && PointAndValue.getValue(searchResult) > VICTORY_STANDARD) {
+                tierWorker.abort = true;
+            }
+            tierWorker.join();
+            priorityResult = tierResult[0];
+        } else {
+            priorityResult = parallel ? search(0, priorDeadline, limits.nodes / 2)
+                    : iterate(0, priorDeadline, limits.nodes / 2);
+            for (Engine helper : helpers) {
+                helper.abort = abort;
+            }
+            searchResult = parallel ? search(1, deadline, limits.nodes) : iterate(1, deadline, limits.nodes);
+        }
+        if (priorityResult == PointAndValue.NONE) {
+            return searchResult;
+        } else if (searchResult == PointAndValue.NONE) {
+            return priorityResult;
+        } else {
+            return PointAndValue.getValue(priorityResult) >= PointAndValue.getValue(searchResult) ? priorityResult
+                    : searchResult;
+        }
+    }
+
+    /**
+     * Submits the work <code>work</code> of <code>Engine</code> to
+     * <code>WORKERS</code>, to be waited for by <code>join()</code>.
+     *
+     * @param work the work to run
+     */
+    private void fork(Runnable work) {
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        this.task = task;
+        this.work = work;
+        pending.set(task);
+        WORKERS.execute(() -> {
+            if (pending.compareAndSet(task, null)) {
+                try {
+                    work.run();
+                } finally {
+                    task.complete(null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until the task of <code>Engine</code> ends. A task which no worker
+     * thread has taken yet runs in current thread instead, so that a busy pool
+     * never holds a search up.
+     */
+    private void join() {
+        if (task == null) {
+            return;
+        }
+        if (pending.compareAndSet(task, null)) {
+            work.run();
+        } else {
+            task.join();
+        }
+        task = null;
+        work = null;
+    }
+
+    /**
+     * Starts to search the predicted replies of the other side in the background,
+     * after <code>color</code> has moved, unless the match has been over.
+     * <p>
+     * The replies are the move in the cache first, and then the points of the
+     * highest evaluated values for the other side, which are picked in the
+     * background as well. Each reply is made on
+     * <code>board</code>, searched as a normal move and undone, so the search
+     * fills the cache and records its move under the zobrist key after the reply.
+     * The threat search is asked first for each reply, so that a recorded move
+     * has already taken a forced move into account.
+     */
+    private void startPonder() {
+        ponderCount = 0;
+        if (!ponderFlag || step < 2 || frontier.size() == 0 || evaluateBoard(color) > VICTORY_STANDARD) {
+            return;
+        }
+        int other = 3 - color;
+        SearchLimits limits = getDefaultLimits();
+        abort = cancelled;
+        cancel = NEVER;
+        ponder = true;
+        fork(() -> {
+            int hashMove = board.fromCanonical(cache.getMove(board.getZobrist(other)), board.getSymmetry());
+            int count = Math.min(ponderReplies.length, listRoot(other, hashMove));
+            for (int i = 0; i < count; i++) {
+                ponderReplies[i] = getIndex(rootList[i]);
+            }
+            cache.newSearch();
+            for (int i = 0; i < count; i++) {
+                int reply = ponderReplies[i];
+                if (abort || !board.make(reply >> 6, reply & 63, other)) {
+                    break;
+                }
+                long key = board.getZobrist(color);
+                int symmetry = board.getSymmetry();
+                long pv = PointAndValue.NONE;
+                if (evaluateBoard(other) <= VICTORY_STANDARD) {
+                    Point forced = getThreatMove(System.currentTimeMillis() + limits.time / 10);
+                    pv = forced != null ? PointAndValue.pack(forced.p2Index(), 0) : searchMove(limits, false);
+                }
+                board.unmake();
+                if (abort) {
+                    break;
+                } else if (pv != PointAndValue.NONE) {
+                    ponderKeys[ponderCount] = key;
+                    ponderMoves[ponderCount] = board.toCanonical(PointAndValue.getIndex(pv), symmetry);
+                    ponderCount++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops the ponder and waits until it has undone its moves on
+     * <code>board</code>. The replies it has completed are kept, and so is a stop
+     * asked by the client.
+     */
+    private void stopPonder() {
+        if (!ponder) {
+            return;
+        }
+        abort = true;
+        join();
+        ponder = false;
+        abort = cancelled;
+    }
+
+    /**
+     * Clears the stop asked by the client, since the situation has changed and
+     * any later search is for a new request.
+     */
+    private void clearStop() {
+        cancelled = false;
+        abort = false;
+    }
+
+    /**
+     * Returns the move found by the ponder for current situation, if the other
+     * side has replied as predicted, or with an image of the prediction under a
+     * symmetry. The results of the ponder are used up.
+     *
+     * @return the move, or <code>null</code> if the reply was not predicted
+     */
+    private Point getPonderMove() {
+        long key = board.getZobrist(color);
+        int symmetry = board.getSymmetry();
+        Point p = null;
+        for (int i = 0; i < ponderCount && p == null; i++) {
+            Point move = Point.index2P(board.fromCanonical(ponderMoves[i], symmetry));
+            if (ponderKeys[i] == key && get(move) == 0 && isKnight(move)) {
+                p = move;
+            }
+        }
+        ponderCount = 0;
+        return p;
+    }
+
+    /**
+     * Returns the step which causes the maximum value in the view of the side to
+     * move <code>side</code>, via a principal variation search.
+     * <p>
+     * The first point is searched with the whole window from <code>alpha</code>
+     * to <code>beta</code>, and the others with a null window first, which only
+     * proves they are no better. A point which proves better is searched again
+     * with the whole window.
+     * <p>
+     * The result is packed as <code>PointAndValue.pack(int, int)</code>, so that
+     * a node allocates no object.
+     *
+     * @param tier     <code>0</code> for prior points, <code>1</code> for normal
+     *                 points
+     * @param side     the side to move: <code>1</code> for black, <code>2</code>
+     *                 for white
+     * @param leftStep the step(s) to be evaluated
+     * @param alpha    the value the side to move has already got
+     * @param beta     the value the other side has already got, in the view of
+     *                 the side to move
+     * @return the step which causes the maximum value, with point and its
+     *         corresponding value in the view of the side to move, or
+     *         <code>PointAndValue.NONE</code> if there is no point
+     */
+    private long negamax(int tier, int side, int leftStep, int alpha, int beta) {
+        int deep = searchDeep[tier];
+        long key = board.getZobrist(side);
+        int symmetry = board.getSymmetry();
+        int hashMove = board.fromCanonical(cache.getMove(key), symmetry);
+        nodes++;
+        if (leftStep < deep) {
+            long cacheResult = cache.get(key, leftStep, alpha, beta);
+            if (cacheResult != PointAndValue.NONE) {
+                return PointAndValue.pack(board.fromCanonical(PointAndValue.getIndex(cacheResult), symmetry),
+                        PointAndValue.getValue(cacheResult));
+            }
+        }
+        int count = orderMoves(tier, side, leftStep, hashMove);
+        long[] list = moves[deep - leftStep];
+        if (leftStep == 1) {
+            if (count == 0) {
+                return PointAndValue.NONE;
+            }
+            int index = getIndex(list[0]);
+            board.make(index >> 6, index & 63, side);
+            long deepResult = PointAndValue.pack(index, evaluateBoard(side));
+            board.unmake();
+            store(key, symmetry, deepResult, leftStep, ChequerCache.EXACT);
+            return deepResult;
+        }
+        int alphaOrigin = alpha;
+        int maxIndex = -1;
+        int maxValue = MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (isStopped()) {
+                break;
+            }
+            int index = getIndex(list[i]);
+            board.make(index >> 6, index & 63, side);
+            int value = evaluateBoard(side);
+            if (value > VICTORY_STANDARD) {
+                board.unmake();
+                long winResult = PointAndValue.pack(index, value);
+                store(key, symmetry, winResult, leftStep, ChequerCache.LOWER);
+                return winResult;
+            }
+            long nextStepResult;
+            if (maxIndex < 0) {
+                nextStepResult = negamax(tier, 3 - side, leftStep - 1, -beta, -alpha);
+            } else {
+                nextStepResult = negamax(tier, 3 - side, leftStep - 1, -alpha - 1, -alpha);
+                if (nextStepResult != PointAndValue.NONE && -PointAndValue.getValue(nextStepResult) > alpha
+                        && -PointAndValue.getValue(nextStepResult) < beta) {
+                    nextStepResult = negamax(tier, 3 - side, leftStep - 1, -beta, -alpha);
+                }
+            }
+            board.unmake();
+            if (stopped) {
+                break;
+            }
+            if (nextStepResult == PointAndValue.NONE) {
+                continue;
+            }
+            int nextStepValue = -PointAndValue.getValue(nextStepResult);
+            if (maxIndex < 0 || maxValue < nextStepValue || maxValue == nextStepValue && nearMidThan(index, maxIndex)) {
+                maxValue = nextStepValue;
+                maxIndex = index;
+            }
+            if (maxValue > alpha) {
+                alpha = maxValue;
+            }
+            if (alpha >= beta) {
+                if (index != hashMove) {
+                    recordCutoff(deep - leftStep, side, leftStep, index);
+                }
+                long iterResult = PointAndValue.pack(maxIndex, maxValue);
+                store(key, symmetry, iterResult, leftStep, ChequerCache.LOWER);
+                return iterResult;
+            }
+        }
+        if (maxIndex < 0) {
+            return PointAndValue.NONE;
+        }
+        long finalResult = PointAndValue.pack(maxIndex, maxValue);
+        store(key, symmetry, finalResult, leftStep, maxValue <= alphaOrigin ? ChequerCache.UPPER : ChequerCache.EXACT);
+        return finalResult;
+    }
+
+    /**
+     * Makes the packed move <code>move</code> on the chessboard, after the ponder
+     * has been stopped.
+     *
+     * @param move the packed move as <code>Move</code>
+     * @return <code>true</code> if the move has been made, <code>false</code>
+     *         otherwise
+     * @throws IllegalArgumentException if the point is not a blank grid
+     */
+    public synchronized boolean make(int move) {
+        stopPonder();
+        clearStop();
+        Point p = Move.toPoint(move);
+        if (get(p) != 0) {
+            throw new IllegalArgumentException(get(p) + (p == null ? "" : p.p2Pos().toString(false)));
+        }
+        boolean made = board.make(move);
+        if (made) {
+            step++;
+        }
+        for (Engine worker : workers) {
+            worker.make(move);
+        }
+        return made;
+    }
+
+    /**
+     * Undoes the latest <code>count</code> moves on the chessboard, after the
+     * ponder has been stopped. The results of the ponder are dropped.
+     *
+     * @param count the count of moves to undo
+     */
+    public synchronized void unmake(int count) {
+        stopPonder();
+        clearStop();
+        ponderCount = 0;
+        count = Math.min(count, step);
+        board.unmake(count);
+        step -= count;
+        for (Engine worker : workers) {
+            worker.unmake(count);
+        }
+    }
+
+    /**
+     * Undoes all the moves on the chessboard, and forgets the cache of the former
+     * situations.
+     */
+    public synchronized void reset() {
+        unmake(step);
+        cache.clear();
+    }
+
+    /**
+     * Searches the move of <code>color</code> in current situation with the
+     * budgets <code>limits</code>.
+     * <p>
+     * The first <code>2</code> steps are the middle of the chessboard and a random
+     * knight move from it. Then the opening book, the result of the ponder and the
+     * threat search are asked in turn, and the full search decides the move only
+     * if none of them has one. A predicted reply is answered at once, since the
+     * ponder has asked the threat search for it already.
+     *
+     * @param color  the side to move: <code>1</code> for black, <code>2</code>
+     *               for white
+     * @param limits the budgets of the move
+     * @return the result of the search
+     */
+    public SearchResult search(int color, SearchLimits limits) {
+        return search(color, limits, NEVER);
+    }
+
+    /**
+     * Searches the move of <code>color</code> as
+     * <code>search(int, SearchLimits)</code>, which stops as soon as the token
+     * <code>cancel</code> returns <code>true</code>.
+     * <p>
+     * The token belongs to a single request, so a request cancelled before the
+     * search starts, or while it waits for the lock behind a retraction, is never
+     * searched in full.
+     *
+     * @param color  the side to move: <code>1</code> for black, <code>2</code>
+     *               for white
+     * @param limits the budgets of the move
+     * @param cancel the cancellation token of the request
+     * @return the result of the search
+     */
+    public synchronized SearchResult search(int color, SearchLimits limits, BooleanSupplier cancel) {
+        stopPonder();
+        this.color = color;
+        this.cancel = cancel;
+        this.abort = cancelled || cancel.getAsBoolean();
+        long start = System.currentTimeMillis();
+        nodes = 0;
+        Point p = null;
+        int value = 0;
+        if (step == 0) {
+            p = new Point(length / 2, length / 2);
+        } else if (step == 1) {
+            p = board.getPoint(0).step(Diagram.values()[new Random().nextInt(Diagram.values().length)], 1, length);
+        } else {
+            p = getBookMove();
+        }
+        if (p == null && step >= 2) {
+            p = getPonderMove();
+        }
+        if (p == null && step >= 2) {
+            p = getThreatMove(start + limits.time / 10);
+        }
+        if (p == null && !abort) {
+            cache.newSearch();
+            long pv = searchMove(limits, true);
+            if (pv != PointAndValue.NONE) {
+                p = Point.index2P(PointAndValue.getIndex(pv));
+                value = PointAndValue.getValue(pv);
+            }
+        }
+        long searched = nodes;
+        for (Engine worker : workers) {
+            searched += worker.nodes;
+        }
+        return new SearchResult(p == null ? Move.NONE : Move.of(p, color), value, searched,
+                System.currentTimeMillis() - start, cancelled || cancel.getAsBoolean());
+    }
+
+    /**
+     * Starts to ponder on the time of the other side, after <code>color</code>
+     * has moved. The ponder is stopped by the next <code>make(int)</code>,
+     * <code>unmake(int)</code> or <code>search(int, SearchLimits)</code>.
+     *
+     * @param color the side which has just moved
+     */
+    public synchronized void ponder(int color) {
+        stopPonder();
+        this.color = color;
+        startPonder();
+    }
+
+    /**
+     * Asks current search and the ponder to stop as soon as possible. It can be
+     * called from any thread, and returns without waiting.
+     * <p>
+     * The search checks the request before every move it makes, so it unwinds
+     * within the time of a single node, and returns the best move found so far.
+     */
+    public void stop() {
+        cancelled = true;
+        abort = true;
+        for (Engine worker : workers) {
+            worker.abort = true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * <code>Move</code> encodes a move in <strong>Knight Gobang 6</strong> as a
+ * primitive <code>int</code>, so that moves can be passed and stored without
+ * any object.
+ * <p>
+ * A move is packed as <code>color &lt;&lt; 12 | Point.p2Index()</code>. The
+ * <code>0th</code> to <code>11th</code> bits are for the index of the point,
+ * all <code>1</code> for no point, and the <code>12th</code> bit and above are
+ * for the color, which may be negative for the ending marks of
+ * <code>History</code>. <code>NONE</code> is for no move, which has no point
+ * and a color of <code>0</code>, so that it differs from the move on the grid
+ * <code>(0, 0)</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Point
+ * @see MoveList
+ */
+public abstract class Move {
+    /**
+     * Records the offset of the color part.
+     */
+    public static final int COLOR_SHIFT = 12;
+    /**
+     * Records the mask of the index part.
+     */
+    public static final int INDEX_MASK = (1 << COLOR_SHIFT) - 1;
+    /**
+     * Records the index part for no point.
+     */
+    public static final int NULL_INDEX = INDEX_MASK;
+    /**
+     * Records the code for no move.
+     */
+    public static final int NONE = NULL_INDEX;
+
+    /**
+     * Packs the move of <code>color</code> on the grid <code>(x, y)</code>.
+     *
+     * @param x     the x coordinate of the point
+     * @param y     the y coordinate of the point
+     * @param color the color of the chess piece
+     * @return the packed move
+     */
+    public static int of(int x, int y, int color) {
+        return color << COLOR_SHIFT | x << 6 | y;
+    }
+
+    /**
+     * Packs the move of <code>color</code> on the point <code>p</code>.
+     *
+     * @param p     the point of the chess piece, or <code>null</code> for no point
+     * @param color the color of the chess piece
+     * @return the packed move
+     */
+    public static int of(Point p, int color) {
+        return color << COLOR_SHIFT | (p == null ? NULL_INDEX : p.p2Index());
+    }
+
+    /**
+     * Returns the index of the point of <code>move</code>.
+     *
+     * @param move the packed move
+     * @return the index as <code>Point.p2Index()</code>, <code>NULL_INDEX</code>
+     *         for no point
+     */
+    public static int getIndex(int move) {
+        return move & INDEX_MASK;
+    }
+
+    /**
+     * Returns the x coordinate of the point of <code>move</code>.
+     *
+     * @param move the packed move
+     * @return the x coordinate
+     */
+    public static int getX(int move) {
+        return (move & INDEX_MASK) >> 6;
+    }
+
+    /**
+     * Returns the y coordinate of the point of <code>move</code>.
+     *
+     * @param move the packed move
+     * @return the y coordinate
+     */
+    public static int getY(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Returns the color of <code>move</code>.
+     *
+     * @param move the packed move
+     * @return the color
+     */
+    public static int getColor(int move) {
+        return move >> COLOR_SHIFT;
+    }
+
+    /**
+     * Changes <code>move</code> to its point.
+     *
+     * @param move the packed move
+     * @return the point, or <code>null</code> for no point
+     */
+    public static Point toPoint(int move) {
+        int index = move & INDEX_MASK;
+        return index == NULL_INDEX ? null : Point.index2P(index);
+    }
+}
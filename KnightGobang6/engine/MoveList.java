@@ -0,0 +1,94 @@
+/**
+ * <code>MoveList</code> records a sequence of moves packed as
+ * <code>Move</code> in a growable <code>int</code> array, which stores no object
+ * for each move.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Move
+ */
+public class MoveList {
+    /**
+     * Records the packed moves.
+     */
+    private int[] moves;
+    /**
+     * Records the count of moves.
+     */
+    private int size;
+
+    /**
+     * Constructs a new empty <code>MoveList</code> with the initial capacity
+     * <code>capacity</code>.
+     *
+     * @param capacity the initial capacity
+     */
+    public MoveList(int capacity) {
+        this.moves = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the count of moves.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if there is no move.
+     *
+     * @return <code>true</code> if it is empty, <code>false</code> otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the <code>i</code>th move.
+     *
+     * @param i the order of the move, from <code>0</code>
+     * @return the packed move
+     */
+    public int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        return moves[i];
+    }
+
+    /**
+     * Adds the move <code>move</code> to the end.
+     *
+     * @param move the packed move
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Removes and returns the last move.
+     *
+     * @return the packed move
+     */
+    public int removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("No move to remove.");
+        }
+        return moves[--size];
+    }
+
+    /**
+     * Removes all the moves.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -9,6 +9,11 @@
  * @see Diagram
  */
 public class Point {
+    /**
+     * Records the symbols of the columns in symbol mode, which skips the letters
+     * <code>I</code> and <code>l</code>.
+     */
+    public static final String ALPHABET = "ABCDEFGHJKLMNOPQRSTUVWXYZabcdefghijkmnopqrstuvwxy";
     /**
      * Records the x coordinate of the point or position.
      */
@@ -36,13 +41,14 @@ public class Point {
      * If the final point is beyond the chessboard range, it will be set to
      * <code>null</code>.
      *
-     * @param dir the direction of the move
-     * @param len the distance of the move
+     * @param dir    the direction of the move
+     * @param len    the distance of the move
+     * @param length the length of chequer
      * @return the final point
      */
-    public Point move(Direction dir, int len) {
+    public Point move(Direction dir, int len, int length) {
         Point p = new Point(this.x + dir.x * len, this.y + dir.y * len);
-        if (!p.checkRange()) {
+        if (!p.checkRange(length)) {
             return null;
         } else {
             return p;
@@ -56,13 +62,14 @@ public class Point {
      * If the final point is beyond the chessboard range, it will be set to
      * <code>null</code>.
      *
-     * @param dia the diagram of the step
-     * @param len the distance of the step
+     * @param dia    the diagram of the step
+     * @param len    the distance of the step
+     * @param length the length of chequer
      * @return the final point
      */
-    public Point step(Diagram dia, int len) {
+    public Point step(Diagram dia, int len, int length) {
         Point p = new Point(this.x + dia.x * len, this.y + dia.y * len);
-        if (!p.checkRange()) {
+        if (!p.checkRange(length)) {
             return null;
         } else {
             return p;
@@ -81,7 +88,7 @@ public class Point {
         if (flag) {
             return "(" + x + ", " + y + ")";
         } else {
-            return Constant.ALPHABET.substring(x - 1, x) + y;
+            return ALPHABET.substring(x - 1, x) + y;
         }
     }
 
@@ -105,23 +112,46 @@ public class Point {
         return new Point(x - 1, y - 1);
     }
 
+    /**
+     * <strong>This method is only for point.</strong> Changes a point to its
+     * corresponding index, which is <code>x &lt;&lt; 6 | y</code> and independent
+     * of the chessboard length.
+     *
+     * @return this index
+     */
+    public int p2Index() {
+        return x << 6 | y;
+    }
+
+    /**
+     * Changes an index to its corresponding point.
+     *
+     * @param index the index of the point
+     * @return the point of the index
+     * @see Point#p2Index()
+     */
+    public static Point index2P(int index) {
+        return new Point(index >> 6, index & 63);
+    }
+
     /**
      * <strong>This method is only for point.</strong> Checks if the point is in the
      * board range.
      *
+     * @param length the length of chequer
      * @return <code>true</code> if the point is in the board range,
      *         <code>false</code> otherwise
      */
-    public boolean checkRange() {
-        return x >= 0 && x < Variable.getLength() && y >= 0 && y < Variable.getLength();
+    public boolean checkRange(int length) {
+        return x >= 0 && x < length && y >= 0 && y < length;
     }
 
     /**
-     * Returns the hash code of the point.
+     * Returns the hash code of the point, which is its index.
      */
     @Override
     public int hashCode() {
-        return Variable.getLength() * x + y;
+        return p2Index();
     }
 
     /* ------------------------- ADORABLE DIVIDING LINE ------------------------- */
@@ -130,10 +160,11 @@ public class Point {
      * NOT USED
      *
      * @param p
+     * @param length
      * @return
      */
-    public boolean nearMidThan(Point p) {
-        return Math.max(Math.abs(x - Variable.getLength() / 2), Math.abs(y - Variable.getLength() / 2)) < Math
-                .max(Math.abs(p.x - Variable.getLength() / 2), Math.abs(p.y - Variable.getLength() / 2));
+    public boolean nearMidThan(Point p, int length) {
+        return Math.max(Math.abs(x - length / 2), Math.abs(y - length / 2)) < Math
+                .max(Math.abs(p.x - length / 2), Math.abs(p.y - length / 2));
     }
 }
@@ -0,0 +1,87 @@
+/**
+ * <code>PointAndValue</code> records information of a point and its
+ * corresponding value in a single situation. <strong>This class only permits
+ * point mode </strong><code>Point</code> <strong>in the point part.</strong>
+ * <p>
+ * The search passes a pair as a primitive <code>long</code> instead, so that
+ * it allocates no object per node. A pair is packed as
+ * <code>(long) value &lt;&lt; 32 | index</code>: the <code>0th</code> to
+ * <code>31st</code> bits are for the index of the point as
+ * <code>Point.p2Index()</code>, and the <code>32nd</code> bit and above are
+ * for the value. <code>NONE</code> is for no pair, since its value is below
+ * any value of a search.
+ *
+ * @author Instant
+ * @author Ego-Ego
+ * @see Point
+ */
+public class PointAndValue {
+    /**
+     * Records the code for no pair.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+    /**
+     * Records the coordinate of the point in a certain situation.
+     */
+    public final Point p;
+    /**
+     * Records the value of the point in a certain situation.
+     */
+    public final int value;
+
+    /**
+     * Constructs a set of a point and its corresponding value in a certain
+     * situation.
+     *
+     * @param p     the coordinate of the point of the set
+     * @param value the value of the point of the set
+     */
+    public PointAndValue(Point p, int value) {
+        this.p = p;
+        this.value = value;
+    }
+
+    /**
+     * Constructs a set of a new point and its corresponding value in a certain
+     * situation.
+     *
+     * @param x     the x coordinate of the point of the set
+     * @param y     the y coordinate of the point of the set
+     * @param value the value of the point of the set
+     */
+    public PointAndValue(int x, int y, int value) {
+        this.p = new Point(x, y);
+        this.value = value;
+    }
+
+    /**
+     * Packs the point with the index <code>index</code> and its value.
+     *
+     * @param index the index of the point as <code>Point.p2Index()</code>
+     * @param value the value of the point
+     * @return the packed pair
+     */
+    public static long pack(int index, int value) {
+        return (long) value << 32 | index;
+    }
+
+    /**
+     * Returns the index of the point of the packed pair <code>pv</code>.
+     *
+     * @param pv the packed pair
+     * @return the index as <code>Point.p2Index()</code>
+     */
+    public static int getIndex(long pv) {
+        return (int) pv;
+    }
+
+    /**
+     * Returns the value of the packed pair <code>pv</code>.
+     *
+     * @param pv the packed pair
+     * @return the value
+     */
+    public static int getValue(long pv) {
+        return (int) (pv >> 32);
+    }
+}
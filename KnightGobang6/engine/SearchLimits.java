@@ -0,0 +1,34 @@
+/**
+ * <code>SearchLimits</code> records the budgets of a single search of
+ * <code>Engine</code>. The search stops at whichever budget is used up first,
+ * but never before its first iteration completes.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see SearchResult
+ */
+public class SearchLimits {
+    /**
+     * Records the time budget in milliseconds.
+     */
+    public final long time;
+    /**
+     * Records the node budget.
+     */
+    public final long nodes;
+
+    /**
+     * Constructs the budgets of a search.
+     *
+     * @param time  the time budget in milliseconds
+     * @param nodes the node budget
+     */
+    public SearchLimits(long time, long nodes) {
+        if (time <= 0 || nodes <= 0) {
+            throw new IllegalArgumentException("Limits " + time + ", " + nodes + " are not positive.");
+        }
+        this.time = time;
+        this.nodes = nodes;
+    }
+}
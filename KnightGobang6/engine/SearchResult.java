@@ -0,0 +1,50 @@
+/**
+ * <code>SearchResult</code> records the result of a single search of
+ * <code>Engine</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Engine
+ * @see SearchLimits
+ */
+public class SearchResult {
+    /**
+     * Records the packed move as <code>Move</code>, <code>Move.NONE</code> if
+     * there is none.
+     */
+    public final int move;
+    /**
+     * Records the value of the move in the view of the side to move, which is
+     * <code>0</code> if the move is not decided by the full search.
+     */
+    public final int value;
+    /**
+     * Records the count of nodes searched by all the search threads.
+     */
+    public final long nodes;
+    /**
+     * Records the time the search has taken in milliseconds.
+     */
+    public final long time;
+    /**
+     * Records if the search has been stopped by <code>Engine.stop()</code>.
+     */
+    public final boolean stopped;
+
+    /**
+     * Constructs the result of a search.
+     *
+     * @param move    the packed move, <code>Move.NONE</code> for none
+     * @param value   the value of the move
+     * @param nodes   the count of nodes searched
+     * @param time    the time taken in milliseconds
+     * @param stopped <code>true</code> if the search has been stopped
+     */
+    public SearchResult(int move, int value, long nodes, long time, boolean stopped) {
+        this.move = move;
+        this.value = value;
+        this.nodes = nodes;
+        this.time = time;
+        this.stopped = stopped;
+    }
+}
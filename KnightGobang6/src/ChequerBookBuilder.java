@@ -0,0 +1,239 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <code>ChequerBookBuilder</code> builds the opening book of a difficulty for
+ * <code>ChequerBook</code>, from the games of <code>Engine</code> against
+ * itself and the game records written by <code>History</code>.
+ * <p>
+ * Each move in the first <code>MAX_STEP</code> steps of a game is recorded
+ * under the canonical zobrist key of the situation before it, with the weight
+ * and the score of the game. The situations which are images of each other
+ * under the symmetries of the square share their records.
+ * <p>
+ * Usage: <code>java ChequerBookBuilder difficulty games [records...]</code>,
+ * which writes the book to <code>ChequerBook.getFile(length)</code>.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see ChequerBook
+ * @see Engine
+ * @see History
+ */
+public class ChequerBookBuilder {
+    /**
+     * Records the count of steps of a game which are recorded.
+     */
+    private static final int MAX_STEP = 16;
+    /**
+     * Records the count of steps of a game against itself which are chosen at
+     * random, so that the games vary. These steps are not recorded.
+     */
+    private static final int RANDOM_STEP = 4;
+    /**
+     * Records the pattern of a move in a game record.
+     */
+    private static final Pattern MOVE_PATTERN = Pattern.compile("\\((\\d+), (\\d+)\\), (Black|White);");
+    /**
+     * Records the difficulty of the book.
+     */
+    private final int difficulty;
+    /**
+     * Records the chessboard's length.
+     */
+    private final int length;
+    /**
+     * Records the chessboard the games are replayed on.
+     */
+    private final ChequerBoard board;
+    /**
+     * Records the weight and the score of each move of each situation.
+     */
+    private final HashMap<Long, HashMap<Integer, int[]>> entries;
+
+    /**
+     * Constructs a new blank <code>ChequerBookBuilder</code> for the difficulty
+     * <code>difficulty</code>.
+     *
+     * @param difficulty <code>0</code> for normal, <code>1</code> for hard,
+     *                   <code>2</code> for impossible
+     */
+    public ChequerBookBuilder(int difficulty) {
+        this.difficulty = difficulty;
+        this.length = Constant.LENGTH[difficulty];
+        this.board = new ChequerBoard(length);
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Records the moves of a game from the step <code>from</code>.
+     *
+     * @param moves  the packed moves of the game in order
+     * @param winner <code>1</code> for black, <code>2</code> for white,
+     *               <code>0</code> for a draw
+     * @param from   the first recorded step
+     */
+    public void addGame(MoveList moves, int winner, int from) {
+        board.unmake(board.getStep());
+        for (int i = 0; i < moves.size() && i < MAX_STEP; i++) {
+            int color = Move.getColor(moves.get(i));
+            int index = Move.getIndex(moves.get(i));
+            if (i >= Math.max(2, from)) {
+                long key = board.getZobrist(color);
+                int move = board.toCanonical(index, board.getSymmetry());
+                int[] entry = entries.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(move,
+                        k -> new int[2]);
+                entry[0]++;
+                entry[1] += winner == 0 ? 0 : winner == color ? 1 : -1;
+            }
+            if (!board.make(moves.get(i))) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Plays a game of <code>Engine</code> against itself and records it.
+     *
+     * @param random the random generator of the first steps
+     */
+    public void selfPlay(Random random) {
+        Engine[] players = { new Engine(length, difficulty, 1), new Engine(length, difficulty, 1) };
+        for (Engine player : players) {
+            player.setPonder(false);
+        }
+        ChequerBoard game = new ChequerBoard(length);
+        MoveList moves = new MoveList(length * length);
+        int winner = 0;
+        while (game.getFrontier().size() > 0 || game.getStep() == 0) {
+            int color = game.getStep() % 2 + 1;
+            Point p;
+            if (game.getStep() >= 2 && game.getStep() < RANDOM_STEP) {
+                p = Point.index2P(game.getFrontier().get(random.nextInt(game.getFrontier().size())));
+            } else {
+                SearchResult result = players[color - 1].search(color, players[color - 1].getDefaultLimits());
+                if (result.move == Move.NONE) {
+                    return;
+                }
+                p = Move.toPoint(result.move);
+            }
+            if (p == null || !game.make(p.x, p.y, color)) {
+                return;
+            }
+            int move = Move.of(p, color);
+            players[0].make(move);
+            players[1].make(move);
+            moves.add(move);
+            if (game.getChequer().isCons6(p.x, p.y)) {
+                winner = color;
+                break;
+            }
+        }
+        addGame(moves, winner, RANDOM_STEP);
+    }
+
+    /**
+     * Reads a game record written by <code>History</code> and records it, if it
+     * is of the same difficulty.
+     *
+     * @param file the game record
+     * @throws IOException if the record can't be read
+     */
+    public void addRecord(File file) throws IOException {
+        MoveList moves = new MoveList(length * length);
+        MoveList retracts = new MoveList(length * length);
+        int winner = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = MOVE_PATTERN.matcher(line);
+                if (line.startsWith(Constant.RECTEXT[4])
+                        && Integer.parseInt(line.substring(Constant.RECTEXT[4].length()).trim()) != difficulty) {
+                    return;
+                } else if (matcher.matches()) {
+                    Point p = new Point(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).pos2P();
+                    moves.add(Move.of(p, matcher.group(3).equals("Black") ? 1 : 2));
+                    retracts.clear();
+                } else if (line.equals("Retraction;") && !moves.isEmpty()) {
+                    retracts.add(moves.removeLast());
+                } else if (line.equals("Reretraction;") && !retracts.isEmpty()) {
+                    moves.add(retracts.removeLast());
+                } else if (line.startsWith(Constant.RECTEXT[6])) {
+                    String result = line.substring(Constant.RECTEXT[6].length());
+                    if (result.equals(Constant.RECTEXT_FINAL[3]) || result.equals(Constant.RECTEXT_FINAL[0])) {
+                        winner = 1;
+                    } else if (result.equals(Constant.RECTEXT_FINAL[4]) || result.equals(Constant.RECTEXT_FINAL[1])) {
+                        winner = 2;
+                    }
+                }
+            }
+        }
+        addGame(moves, winner, 0);
+    }
+
+    /**
+     * Writes the records sorted by the key into the book file
+     * <code>file</code>.
+     *
+     * @param file the book file
+     * @return the count of records
+     * @throws IOException if the book can't be written
+     */
+    public int write(File file) throws IOException {
+        Long[] keys = entries.keySet().toArray(new Long[0]);
+        Arrays.sort(keys);
+        int count = 0;
+        for (Long key : keys) {
+            count += entries.get(key).size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ChequerBook.HEADER_BYTES + count * ChequerBook.RECORD_BYTES);
+        buffer.putInt(ChequerBook.MAGIC).putInt(length).putInt(count).putInt(0);
+        for (Long key : keys) {
+            for (HashMap.Entry<Integer, int[]> entry : entries.get(key).entrySet()) {
+                buffer.putLong(key).putShort((short) (int) entry.getKey())
+                        .putShort((short) Math.min(entry.getValue()[0], 0xFFFF)).putInt(entry.getValue()[1]);
+            }
+        }
+        buffer.flip();
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java ChequerBookBuilder difficulty games [records...]");
+            return;
+        }
+        int difficulty = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        ChequerBookBuilder builder = new ChequerBookBuilder(difficulty);
+        Random random = new Random();
+        for (int i = 0; i < games; i++) {
+            builder.selfPlay(random);
+            System.out.println("Game " + (i + 1) + " of " + games + " played.");
+        }
+        for (int i = 2; i < args.length; i++) {
+            builder.addRecord(new File(args[i]));
+        }
+        File file = ChequerBook.getFile(builder.length);
+        System.out.println(builder.write(file) + " records written to " + file + ".");
+    }
+}
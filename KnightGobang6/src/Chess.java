@@ -35,6 +35,15 @@ public class Chess {
         this.color = color;
     }
 
+    /**
+     * Constructs an instantiated chess with the packed move <code>move</code>.
+     *
+     * @param move the packed move as <code>Move</code>
+     */
+    public Chess(int move) {
+        this(Move.toPoint(move), Move.getColor(move));
+    }
+
     /**
      * Paraphrases the chess to a string with its point and color.
      * <p>
@@ -1,12 +1,23 @@
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
 /**
  * <code>Chessboard</code> paints a chessboard with symbol type coordinate and
  * anchors also painted while extending <code>JPanel</code>.
+ * <p>
+ * The chess pieces are painted from the snapshot published by
+ * <code>Gameboard</code>, which is read once per painting, so that painting
+ * never blocks or races the match.
+ * <p>
+ * The grid, the coordinate and the anchors are painted once for each size and
+ * each length of the chessboard into an image. A move or a retraction only
+ * repaints the grids it changes, and a painting only paints the chess pieces
+ * inside its clip.
  *
  * @author Instant
  * @author Ego-Echo
@@ -28,6 +39,25 @@ public class Chessboard extends JPanel {
      * Records the anchors' size in 3 difficulties.
      */
     private static final int[] ANCHOR_SIZE = { 3, 3, 2 };
+    /**
+     * Records the font of the coordinate.
+     */
+    private static final Font COORDINATE_FONT = Constant.fontCons(1, Font.BOLD, Constant.SCALE[0]);
+    /**
+     * Records the fonts of the orders, indexed by the count of digits minus
+     * <code>1</code>.
+     */
+    private static final Font[] ORDER_FONT = { Constant.fontCons(1, Font.BOLD, Constant.SCALE[0]),
+            Constant.fontCons(1, Font.BOLD, Constant.SCALE[0] - 2), Constant.fontCons(1, Font.BOLD, Constant.SCALE[0] - 4) };
+    /**
+     * Records the image of the grid, the coordinate and the anchors, which is
+     * painted again only when the size or the length changes.
+     */
+    private transient BufferedImage boardImage;
+    /**
+     * Records the chessboard's length <code>boardImage</code> is painted for.
+     */
+    private int boardLength;
     /**
      * Records the graphics of the chessboard.
      */
@@ -58,10 +88,6 @@ public class Chessboard extends JPanel {
      * Records if field is displayed in present.
      */
     private static boolean fieldFlag;
-    /**
-     * Points to the current history.
-     */
-    private static History history;
     /**
      * Points to the current gameboard.
      */
@@ -81,7 +107,58 @@ public class Chessboard extends JPanel {
     public void paint(Graphics g) {
         int w = getWidth();
         int h = getHeight();
-        int len = Variable.getLength();
+        Snapshot snapshot = gameboard == null ? null : gameboard.getSnapshot();
+        if (snapshot != null && snapshot.length != len) {
+            setLength(snapshot.length);
+        }
+        if (boardImage == null || boardImage.getWidth() != w || boardImage.getHeight() != h || boardLength != len) {
+            boardImage = paintBoard(w, h, len);
+            boardLength = len;
+        }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, w, h);
+        }
+        g.drawImage(boardImage, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, clip.x, clip.y,
+                clip.x + clip.width, clip.y + clip.height, null);
+        if (snapshot == null) {
+            return;
+        }
+        int half = getGridSize() / 2;
+        int minX = Math.max(0, (clip.x - half) / scl - 1);
+        int maxX = Math.min(len - 1, (clip.x + clip.width + half) / scl);
+        int minY = Math.max(0, (clip.y - half) / scl - 1);
+        int maxY = Math.min(len - 1, (clip.y + clip.height + half) / scl);
+        this.g = g;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                int color = snapshot.get(x, y);
+                if (color > 0) {
+                    Point pos = new Point(x + 1, y + 1);
+                    paintPiece(pos, color == 1);
+                    if (orderFlag) {
+                        paintOrder(pos, snapshot.getOrder(x, y), color != 1);
+                    }
+                } else if (fieldFlag && snapshot.isKnight(x, y)) {
+                    paintField(new Point(x + 1, y + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints the grid, the coordinate and the anchors of a chessboard with the
+     * length <code>len</code> into a new image of the size <code>w</code> by
+     * <code>h</code>.
+     *
+     * @param w   the width of the image
+     * @param h   the height of the image
+     * @param len the chessboard's length
+     * @return the image
+     */
+    private BufferedImage paintBoard(int w, int h, int len) {
+        BufferedImage image = new BufferedImage(Math.max(w, 1), Math.max(h, 1), BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.getGraphics();
         String alp = Constant.ALPHABET;
         int[] anc = ANCHOR[dif];
         int ancsize = ANCHOR_SIZE[dif];
@@ -90,7 +167,7 @@ public class Chessboard extends JPanel {
         g.setColor(CHESSBOARD_COLOR);
         g.fillRect(0, 0, w, h);
         g.setColor(Color.BLACK);
-        g.setFont(Constant.fontCons(1, Font.BOLD, Constant.SCALE[0]));
+        g.setFont(COORDINATE_FONT);
         for (int i = 1; i <= len; i++) {
             g.drawLine((int) (i * dw), (int) (dh), (int) (i * dw), (int) (len * dh));
             g.drawLine((int) (dw), (int) (i * dh), (int) (len * dw), (int) (i * dh));
@@ -105,42 +182,74 @@ public class Chessboard extends JPanel {
                 g.fillOval(dw * anc[i] - ancsize, dh * anc[j] - ancsize, 2 * ancsize, 2 * ancsize);
             }
         }
-        Chess[] chessSequence = history.getChessSequence();
-        if (chessSequence != null) {
-            for (int i = 0; i < chessSequence.length; i++) {
-                this.g = g;
-                Chess chess = chessSequence[i];
-                if (chess.p != null) {
-                    Point pos = chess.p.p2Pos();
-                    boolean color = chess.color == 1 ? true : false;
-                    paintPiece(pos, color);
-                    if (orderFlag) {
-                        paintOrder(pos, i + 1, !color);
-                    }
-                    if (fieldFlag) {
-                        for (Diagram dia : Diagram.values()) {
-                            Point pp = chess.p.step(dia, 1);
-                            if (pp != null && !gameboard.isFilled(pp)) {
-                                paintField(pp.p2Pos());
-                            }
-                        }
-                    }
-                } else {
-                    break;
-                }
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Repaints the grid of the point <code>p</code>, where a chess piece is
+     * placed or removed, together with the grids reachable from it via a knight
+     * move, whose field may change. It does nothing for <code>null</code>.
+     *
+     * @param p the point
+     */
+    public void repaintPoint(Point p) {
+        if (p == null) {
+            return;
+        }
+        repaintGrid(p.x, p.y);
+        for (Diagram dia : Diagram.get8Diagrams()) {
+            repaintGrid(p.x + dia.x, p.y + dia.y);
+        }
+    }
+
+    /**
+     * Repaints the rectangle of the grid <code>(x, y)</code>, which covers the
+     * chess piece with its order, or the field.
+     *
+     * @param x the x coordinate of the grid
+     * @param y the y coordinate of the grid
+     */
+    private void repaintGrid(int x, int y) {
+        if (x < 0 || x >= len || y < 0 || y >= len) {
+            return;
+        }
+        int size = getGridSize();
+        repaint(scl * (x + 1) - size / 2, scl * (y + 1) - size / 2, size, size);
+    }
+
+    /**
+     * Returns the size of the rectangle around a grid which a painting on it can
+     * cover.
+     *
+     * @return the size in pixels
+     */
+    private static int getGridSize() {
+        return Math.max(scl, 2 * css) + 4;
+    }
+
+    /**
+     * Sets the length of the chessboard to <code>length</code>, together with the
+     * anchors', the chess' and the grid's sizes of that length.
+     *
+     * @param length the chessboard's length
+     */
+    private static void setLength(int length) {
+        for (int i = 0; i < Constant.LENGTH.length; i++) {
+            if (Constant.LENGTH[i] == length) {
+                dif = (byte) i;
             }
         }
+        len = length;
+        css = Constant.CHESSSIZE[dif];
+        scl = Constant.BOARDWIDTH / (len + 1);
     }
 
     /**
      * Initializes <code>Chessboard</code>'s basic parameters.
      */
     public void initVariable() {
-        dif = Variable.difficulty;
-        len = Variable.getLength();
-        css = Variable.getChessSize();
-        scl = Constant.BOARDWIDTH / (len + 1);
-        history = KnightGobang6.history;
+        setLength(Variable.getLength());
         gameboard = KnightGobang6.gameboard;
         goListener = KnightGobang6.goListener;
         addMouseListener(goListener);
@@ -203,7 +312,7 @@ public class Chessboard extends JPanel {
         Color clr = color ? Color.BLACK : Color.WHITE;
         g.setColor(clr);
         int div = (index >= 100) ? 4 : (index >= 10) ? 2 : 0;
-        g.setFont(Constant.fontCons(1, Font.BOLD, Constant.SCALE[0] - div));
+        g.setFont(ORDER_FONT[div / 2]);
         g.drawString(Integer.toString(index), scl * pos.x - 4 - div, scl * pos.y + 4);
     }
 
@@ -16,7 +16,7 @@ public abstract class Constant {
     /**
      * Records the alphabet used as coordinate symbol.
      */
-    public static final String ALPHABET = "ABCDEFGHJKLMNOPQRSTUVWXYZabcdefghijkmnopqrstuvwxy";
+    public static final String ALPHABET = Point.ALPHABET;
     /**
      * Records the chess' size of the chessboard in 3 difficulties.
      */
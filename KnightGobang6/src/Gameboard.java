@@ -1,12 +1,23 @@
 import java.util.ArrayList;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.swing.JButton;
+import javax.swing.SwingUtilities;
 
 /**
  * <code>Gameboard</code> manages a match. It appoints <code>Watcher</code>s and
  * <code>Player</code>s, and interacts with <code>GoListener</code> and
  * <code>History</code>, which are for PVE and PVP mode.
+ * <p>
+ * <code>Gameboard</code> is an actor: every change of the match is posted as an
+ * event, and its event loop, which runs on a virtual thread, handles the events
+ * one by one. The players answer the requests for moves asynchronously, so the
+ * loop never waits for a search.
+ * <p>
+ * The state of the match is changed only on the event loop, and the buttons only
+ * on the event dispatch thread, to which the loop hands every change of them.
  *
  * @author Instant
  * @author Ego-Echo
@@ -21,6 +32,11 @@ public class Gameboard {
      * Records the times retraction can be permitted in 3 difficulties.
      */
     public static final int[] RETRACT_LEFT = { -1, 8, 3 };
+    /**
+     * Records the event which ends the event loop.
+     */
+    private static final Runnable CLOSE = () -> {
+    };
     /**
      * Records players' type of current match.
      */
@@ -38,11 +54,23 @@ public class Gameboard {
      */
     private int length;
     /**
-     * Records the situation of each grid of the chessboard.
-     * <p>
-     * <code>0</code> is blank, <code>1</code> is black, <code>2</code> is white.
+     * Records the count of threads the <code>RobotPlayer</code>s of current match
+     * search with.
+     */
+    private int threads;
+    /**
+     * Records if the <code>RobotPlayer</code>s of current match ponder on the
+     * other side's time.
+     */
+    private boolean ponder;
+    /**
+     * Records the situation of each grid of the chessboard in bitsets.
+     */
+    private Bitboard chequer;
+    /**
+     * Records the packed moves of a retraction or a reretraction.
      */
-    private byte[][] chequer;
+    private int[] retraction;
     /**
      * Records the buttons that are functional relevant to <code>Gameboard</code>.
      */
@@ -80,7 +108,7 @@ public class Gameboard {
      * The <code>1st</code> digit is for <code>field</code>, <code>0</code> for
      * hidden, <code>1</code> for displaying.
      */
-    private byte displayFlags = 0;
+    private volatile byte displayFlags = 0;
     /**
      * Records the left times retraction can be permitted in current match.
      */
@@ -95,40 +123,34 @@ public class Gameboard {
      * <code>true</code> indicates a match is in progress, <code>false</code>
      * otherwise.
      */
-    private boolean inProgress;
-    /**
-     * Records if other classes have been inited when a new match starts.
-     */
-    public boolean isInited;
+    private volatile boolean inProgress;
     /**
      * Records <code>Player</code>s in current match.
      * <p>
      * In each match, there is set 2 <code>Player</code>s, with differences in
      * different mode.
      */
-    private Player[] player;
+    private volatile Player[] player;
     /**
      * Records whose turn it is in present.
      * <p>
      * <code>0</code> for the black side, <code>1</code> for the white side.
      */
-    private int whoseTurn;
+    private volatile int whoseTurn;
     /**
-     * Records point for the current step.
+     * Records the request for the move of current step, which is cancelled by a
+     * retraction or the end of the match.
      */
-    private Point currentPoint;
+    private CompletableFuture<Integer> request;
     /**
-     * Records the play thread.
+     * Records the snapshot of current situation, which is published to the
+     * renderer after each change.
      */
-    private Thread play;
+    private volatile Snapshot snapshot;
     /**
-     * Records the move thread.
+     * Records the events posted to the event loop.
      */
-    private Thread move;
-    /**
-     * Records if the interruption is from a retraction or a reretraction.
-     */
-    private boolean retractInterrupt;
+    private final BlockingQueue<Runnable> events;
     /**
      * Points to the current history.
      */
@@ -141,58 +163,105 @@ public class Gameboard {
      * Points to the current goListener.
      */
     private GoListener goListener;
+
     /**
-     * This lock controls synchronized codes.
+     * Construts a new <code>Gameboard</code>, whose event loop is not started.
      */
-    public static final ReentrantLock lock = new ReentrantLock();
+    private Gameboard() {
+        this.events = new LinkedBlockingQueue<>();
+    }
 
     /**
-     * Construts a new <code>Gameboard</code>.
+     * Creates a new <code>Gameboard</code>, and starts its event loop on a virtual
+     * thread, which runs until <code>close()</code>.
+     *
+     * @return the new <code>Gameboard</code>
      */
-    public Gameboard() {
+    public static Gameboard create() {
+        Gameboard gameboard = new Gameboard();
+        Thread.ofVirtual().name("Gameboard").start(gameboard::loop);
+        return gameboard;
     }
 
     /**
-     * Initializes <code>Gameboard</code>'s basic parameters.
+     * Closes <code>Gameboard</code>. The event loop stops the players of current
+     * match and ends after the events posted before, and drops the events posted
+     * after.
      */
-    public void initVariable() {
-        this.players = Variable.players;
-        this.chess = Variable.chess;
-        this.difficulty = Variable.difficulty;
-        this.length = Variable.getLength();
-        this.chequer = new byte[length][length];
-        this.buttonList = UI.buttonList;
+    public void close() {
+        post(CLOSE);
+    }
+
+    /**
+     * Initializes <code>Gameboard</code>'s basic parameters with the context of
+     * the new match, which belongs to <code>Gameboard</code> alone, so that many
+     * of them can run in a process. The initialization is posted to the event
+     * loop, after the events of the former match.
+     *
+     * @param players    <code>-1</code> for EVE, <code>0</code> for PVE,
+     *                   <code>1</code> for PVP
+     * @param chess      <code>true</code> for black, <code>false</code> for white
+     * @param difficulty <code>0</code> for normal, <code>1</code> for hard,
+     *                   <code>2</code> for impossible
+     * @param length     the chessboard's length
+     * @param threads    the count of threads each <code>RobotPlayer</code>
+     *                   searches with
+     * @param ponder     <code>true</code> for the <code>RobotPlayer</code>s to
+     *                   ponder on the other side's time
+     * @param history    the history of the match
+     * @param goListener the listener of the match
+     * @param buttonList the buttons that are functional relevant to
+     *                   <code>Gameboard</code>
+     */
+    public void initVariable(byte players, boolean chess, byte difficulty, int length, int threads, boolean ponder,
+            History history, GoListener goListener, ArrayList<JButton> buttonList) {
+        post(() -> init(players, chess, difficulty, length, threads, ponder, history, goListener, buttonList));
+    }
+
+    /**
+     * Initializes <code>Gameboard</code>'s basic parameters as
+     * <code>initVariable(byte, boolean, byte, int, int, boolean, History, GoListener, ArrayList)</code>
+     * on the event loop, and stops the players of the former match.
+     *
+     * @param players    the players' type
+     * @param chess      the chess' type
+     * @param difficulty the difficulty
+     * @param length     the chessboard's length
+     * @param threads    the count of search threads
+     * @param ponder     the ponder's flag
+     * @param history    the history of the match
+     * @param goListener the listener of the match
+     * @param buttonList the buttons of the match
+     */
+    private void init(byte players, boolean chess, byte difficulty, int length, int threads, boolean ponder,
+            History history, GoListener goListener, ArrayList<JButton> buttonList) {
+        if (player != null) {
+            stopPlayers();
+        }
+        this.players = players;
+        this.chess = chess;
+        this.difficulty = difficulty;
+        this.length = length;
+        this.threads = threads;
+        this.ponder = ponder;
+        this.chequer = new Bitboard(length);
+        this.retraction = new int[length * length + 1];
+        this.snapshot = Snapshot.empty(length);
+        this.buttonList = buttonList;
         // this.displayFlags = 0;
         this.retractLeft = players == 0 ? RETRACT_LEFT[difficulty] : -1;
         this.reretractLeft = 0;
         this.inProgress = false;
-        this.isInited = false;
         this.player = new Player[2];
         this.whoseTurn = 0;
-        this.currentPoint = null;
-        this.play = null;
-        this.move = null;
-        this.retractInterrupt = false;
-        this.history = KnightGobang6.history;
+        this.request = null;
+        this.history = history;
         // this.chessboard = KnightGobang6.chessboard;
-        this.goListener = KnightGobang6.goListener;
-        initChequer();
+        this.goListener = goListener;
         initButton();
         setPlayers(players);
     }
 
-    /**
-     * Initializes the situation of each grid of the chessboard to <code>0</code>,
-     * which is blank.
-     */
-    private void initChequer() {
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < length; j++) {
-                chequer[i][j] = 0;
-            }
-        }
-    }
-
     /**
      * Initializes the enabilities of each button listed in <code>buttonList</code>.
      */
@@ -232,11 +301,11 @@ public class Gameboard {
      */
     private void setPlayers(int players) {
         if (players == -1) {
-            player[0] = new RobotPlayer(1);
-            player[1] = new RobotPlayer(2);
+            player[0] = new RobotPlayer(1, this, history);
+            player[1] = new RobotPlayer(2, this, history);
         } else if (players == 0) {
             player[chess ? 0 : 1] = new HumanPlayer(chess ? 1 : 2);
-            player[chess ? 1 : 0] = new RobotPlayer(chess ? 2 : 1);
+            player[chess ? 1 : 0] = new RobotPlayer(chess ? 2 : 1, this, history);
         } else if (players == 1) {
             player[0] = new HumanPlayer(1);
             player[1] = new HumanPlayer(2);
@@ -244,48 +313,103 @@ public class Gameboard {
     }
 
     /**
-     * The main method of <code>Gameboard</code>.
+     * The main method of <code>Gameboard</code>, which runs the event loop.
      * <p>
-     * Manages a match in a single step, collaborating with <code>History</code>,
-     * <code>UI</code>, <code>Chessboard</code> and <code>GoListener</code>.
-     */
-    private void play() {
-        if (!inProgress) {
-            return;
-        }
-        synchronized (this) {
+     * Manages a match event by event, collaborating with <code>History</code>,
+     * <code>UI</code>, <code>Chessboard</code> and <code>GoListener</code>. An
+     * event which fails ends the match in progress as an abend. The loop ends at
+     * the event of <code>close()</code>.
+     */
+    private void loop() {
+        while (true) {
+            Runnable event;
             try {
-                while (retractInterrupt) {
-                    wait(50);
-                }
-                move = new Thread(() -> {
-                    player[whoseTurn].play();
-                });
-                move.start();
-                while (currentPoint == null) {
-                    wait(50);
-                }
+                event = events.take();
             } catch (InterruptedException e) {
-                if (retractInterrupt) {
-                    return;
-                } else {
+                return;
+            }
+            if (event == CLOSE) {
+                if (player != null) {
+                    stopPlayers();
+                }
+                return;
+            }
+            try {
+                event.run();
+            } catch (Exception e) {
+                if (inProgress) {
                     notifyEnd(0);
-                    e.printStackTrace();
-                    return;
                 }
+                e.printStackTrace();
             }
         }
-        Point p = currentPoint;
-        if (p == null || !p.checkRange() || chequer[p.x][p.y] != 0 || history.getCurrentStep() != 0 && !isKnight(p)) {
-            throw new IllegalArgumentException(p.p2Pos().toString(false) + ", " + chequer[p.x][p.y]);
+    }
+
+    /**
+     * Posts the event <code>event</code> to the event loop, and returns at once.
+     *
+     * @param event the event
+     */
+    private void post(Runnable event) {
+        events.add(event);
+    }
+
+    /**
+     * Requests the player of current step to move. The answer is posted back to
+     * the event loop.
+     */
+    private void request() {
+        CompletableFuture<Integer> request = player[whoseTurn].requestMove();
+        this.request = request;
+        request.whenComplete((move, e) -> post(() -> notifyRequest(request, move, e)));
+    }
+
+    /**
+     * Notifies <code>Gameboard</code> that the request <code>request</code> is
+     * answered. The answer is dropped if the request has been cancelled or
+     * replaced.
+     *
+     * @param request the request
+     * @param move    the packed move as <code>Move</code>, or <code>null</code>
+     *                if the request failed
+     * @param e       the failure of the request, or <code>null</code>
+     */
+    private void notifyRequest(CompletableFuture<Integer> request, Integer move, Throwable e) {
+        if (request != this.request || request.isCancelled() || !inProgress) {
+            return;
+        }
+        this.request = null;
+        if (e != null) {
+            throw new IllegalArgumentException(e);
+        }
+        move(move);
+        JButton start = this.start;
+        SwingUtilities.invokeLater(() -> start.setText(Constant.MTBTEXT_START[1]));
+        setAdmitEnability();
+        if (inProgress) {
+            request();
         }
-        chequer[p.x][p.y] = (byte) (whoseTurn + 1);
-        player[whoseTurn].notifyMove(p, whoseTurn + 1);
-        player[1 - whoseTurn].notifyMove(p, whoseTurn + 1);
+    }
+
+    /**
+     * Moves a chess piece as the packed move <code>current</code> decided by the
+     * player of current step, and passes the turn.
+     *
+     * @param current the packed move as <code>Move</code>
+     */
+    private void move(int current) {
+        Point p = Move.toPoint(current);
+        if (p == null || !isLegal(p)) {
+            throw new IllegalArgumentException(Move.getX(current) + ", " + Move.getY(current));
+        }
+        chequer.set(p.x, p.y, whoseTurn + 1);
+        player[whoseTurn].notifyMove(current);
+        player[1 - whoseTurn].notifyMove(current);
         reretractLeft = 0;
         setRetractEnability();
         setReretractEnability();
-        history.notifyMove(p, whoseTurn + 1);
+        history.notifyMove(current);
+        snapshot = snapshot.make(current);
         goListener.notifyMove(p, whoseTurn + 1);
         System.out.println((whoseTurn == 0 ? "Black, " : "White, ") + p.p2Pos().toString(false));
         if (checkForWin(p)) {
@@ -297,7 +421,6 @@ public class Gameboard {
             return;
         }
         whoseTurn = 1 - whoseTurn;
-        currentPoint = null;
     }
 
     /**
@@ -315,53 +438,61 @@ public class Gameboard {
      *              <code>false</code> for white
      */
     public void notifyMove(Point p, boolean color) {
-        if (inProgress) {
-            if (whoseTurn() == color && p != null && chequer[p.x][p.y] == 0
-                    && (history.getCurrentStep() == 0 || isKnight(p))) {
-                currentPoint = p;
+        if (p != null) {
+            notifyMove(Move.of(p, color ? 1 : 2));
+        }
+    }
+
+    /**
+     * Notifies <code>Gameboard</code> to move a chess piece as the packed move
+     * <code>move</code>, as <code>notifyMove(Point, boolean)</code>.
+     *
+     * @param move the packed move as <code>Move</code>
+     */
+    public void notifyMove(int move) {
+        post(() -> {
+            int x = Move.getX(move);
+            int y = Move.getY(move);
+            int color = Move.getColor(move);
+            if (Move.getIndex(move) == Move.NULL_INDEX || !snapshot.isLegal(x, y)) {
+                return;
             }
-        } else {
-            if (p != null && chequer[p.x][p.y] == 0 && (history.getCurrentStep() == 0 || isKnight(p))) {
-                chequer[p.x][p.y] = (byte) (color ? 1 : 2);
+            if (inProgress) {
+                if (whoseTurn() == (color == 1) && request != null) {
+                    request.complete(move);
+                }
+            } else {
+                chequer.set(x, y, color);
                 reretractLeft = 0;
                 setRetractEnability();
                 setReretractEnability();
-                history.notifyMove(p, color ? 1 : 2);
-                goListener.notifyMove(p, color ? 1 : 2);
+                history.notifyMove(move);
+                snapshot = snapshot.make(move);
+                goListener.notifyMove(Move.toPoint(move), color);
             }
-        }
+        });
     }
 
     /**
      * Notifies <code>Gameboard</code> to retract or to retraction in specific
      * step(s).
+     * <p>
+     * The request for current step is cancelled at once, which stops the search
+     * of a <code>RobotPlayer</code> to move, and the event loop requests the
+     * player to move next after the retraction.
      *
      * @param step the step(s) for retraction or reretraction
      * @param flag <code>true</code> for retract, <code>false</code> for reretract
      */
     private void notifyRetraction(int step, boolean flag) {
-        retractInterrupt = true;
-        move.interrupt();
+        if (request != null) {
+            request.cancel(false);
+        }
         if (player[whoseTurn] instanceof RobotPlayer robotPlayer) {
-            robotPlayer.clear();
-            if (step % 2 == 1) {
-                whoseTurn = 1 - whoseTurn;
-            }
+            robotPlayer.stop();
         }
-    }
-
-    /**
-     * Notifies <code>Gameboard</code> that <code>RobotPlayer</code> has been
-     * cleared.
-     */
-    public synchronized void notifyCleared() {
-        if (players == 0) {
-            retractInterrupt = false;
-        } else if (players == -1) {
-            players = -2;
-        } else if (players == -2) {
-            players = -1;
-            retractInterrupt = false;
+        if (step % 2 == 1) {
+            whoseTurn = 1 - whoseTurn;
         }
     }
 
@@ -379,39 +510,45 @@ public class Gameboard {
         // history.record();
         goListener.setProgress(false);
         inProgress = false;
+        stopPlayers();
         setOrderEnability();
         setFieldEnability();
-        retract.setEnabled(false);
-        reretract.setEnabled(false);
-        admit.setEnabled(false);
+        JButton retract = this.retract;
+        JButton reretract = this.reretract;
+        JButton admit = this.admit;
+        SwingUtilities.invokeLater(() -> {
+            retract.setEnabled(false);
+            reretract.setEnabled(false);
+            admit.setEnabled(false);
+        });
     }
 
     /**
-     * Checks if the point <code>p</code> has already been placed a chess piece.
-     *
-     * @param p the point
-     * @return <code>true</code> if the point is filled, <code>false</code>
-     *         otherwise
+     * Cancels the request for current step and stops the searches of the
+     * <code>RobotPlayer</code>s in current match at once, which leaves the match
+     * to end without waiting for them.
      */
-    public boolean isFilled(Point p) {
-        return p != null && p.checkRange() && chequer[p.x][p.y] > 0;
+    private void stopPlayers() {
+        if (request != null) {
+            request.cancel(false);
+        }
+        for (Player p : player) {
+            if (p instanceof RobotPlayer robotPlayer) {
+                robotPlayer.stop();
+            }
+        }
     }
 
     /**
-     * Checks if the point <code>p</code> is reachable by a knight move.
+     * Checks if a chess piece can be placed on the point <code>p</code> in
+     * current situation, as read from the field of the snapshot.
      *
      * @param p the goal point
-     * @return <code>true</code> if the point is reachable, <code>false</code>
+     * @return <code>true</code> if the point is legal, <code>false</code>
      *         otherwise
      */
-    public boolean isKnight(Point p) {
-        for (Diagram dia : Diagram.values()) {
-            Point pp = p.step(dia, 1);
-            if (pp != null && chequer[pp.x][pp.y] > 0) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isLegal(Point p) {
+        return snapshot.isLegal(p.x, p.y);
     }
 
     /**
@@ -434,15 +571,6 @@ public class Gameboard {
         return inProgress;
     }
 
-    /**
-     * Returns if it is retraction interrupted.
-     *
-     * @return retractInterrupt
-     */
-    public boolean isRetractionInterrupted() {
-        return retractInterrupt;
-    }
-
     /**
      * Returns the current player in turn.
      *
@@ -461,6 +589,55 @@ public class Gameboard {
         return whoseTurn == 0 ? true : false;
     }
 
+    /**
+     * Returns the snapshot of current situation, which can be read from any
+     * thread.
+     *
+     * @return snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the chessboard's length of current match.
+     *
+     * @return length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the difficulty of current match.
+     *
+     * @return <code>0</code> for normal, <code>1</code> for hard, <code>2</code>
+     *         for impossible
+     */
+    public byte getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Returns the count of threads each <code>RobotPlayer</code> of current match
+     * searches with.
+     *
+     * @return threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns if the <code>RobotPlayer</code>s of current match ponder on the
+     * other side's time.
+     *
+     * @return <code>true</code> for pondering, <code>false</code> otherwise
+     */
+    public boolean isPonder() {
+        return ponder;
+    }
+
     /**
      * Returns current times of retraction.
      *
@@ -479,19 +656,7 @@ public class Gameboard {
      *         <code>false</code> otherwise
      */
     private boolean checkForWin(Point p) {
-        int whose = chequer[p.x][p.y];
-        for (Direction dir : Direction.get4Directions()) {
-            int count = 0;
-            for (int i = -5; i <= 5; i++) {
-                Point pp = p.move(dir, i);
-                if (pp == null || chequer[pp.x][pp.y] != whose) {
-                    count = 0;
-                } else if (++count == 6) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return chequer.isCons6(p.x, p.y);
     }
 
     /**
@@ -508,45 +673,22 @@ public class Gameboard {
      * Calls a start in current match.
      * <p>
      * For <code>true</code>, a start begins a match; for <code>false</code>, it
-     * ends the current one and begins a new one.
+     * ends the current one and begins a new one. Either way the new match should
+     * have been initialized by <code>initVariable</code> before, which the event
+     * loop handles first.
      *
      * @param flag <code>true</code> to begin a match, <code>false</code> to end the
      *             current one and begins a new one
      */
     public void start(boolean flag) {
-        play = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                if (!flag) {
-                    start.setText(Constant.MTBTEXT_START[0]);
-                }
-                UI.mainFrame.dispose();
-                KnightGobang6.newMatch();
-                try {
-                    while (!isInited) {
-                        wait(100);
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                inProgress = true;
-                setOrderEnability();
-                setFieldEnability();
-                setAdmitEnability();
-                goListener.setProgress(true);
-                try {
-                    while (inProgress) {
-                        play();
-                        start.setText(Constant.MTBTEXT_START[1]);
-                        setAdmitEnability();
-                    }
-                } catch (Exception e) {
-                    notifyEnd(0);
-                    e.printStackTrace();
-                }
-            }
+        post(() -> {
+            inProgress = true;
+            setOrderEnability();
+            setFieldEnability();
+            setAdmitEnability();
+            goListener.setProgress(true);
+            request();
         });
-        play.start();
     }
 
     /**
@@ -559,13 +701,16 @@ public class Gameboard {
      *             to hide them
      */
     public void order(boolean flag) {
-        goListener.order(flag);
-        if (flag) {
-            displayFlags |= 1 << 0;
-        } else {
-            displayFlags &= ~(1 << 0);
-        }
-        setOrderEnability();
+        post(() -> {
+            if (flag) {
+                displayFlags |= 1 << 0;
+            } else {
+                displayFlags &= ~(1 << 0);
+            }
+            GoListener goListener = this.goListener;
+            SwingUtilities.invokeLater(() -> goListener.order(flag));
+            setOrderEnability();
+        });
     }
 
     /**
@@ -578,13 +723,16 @@ public class Gameboard {
      *             reachable, <code>false</code> to hide them
      */
     public void field(boolean flag) {
-        goListener.field(flag);
-        if (flag) {
-            displayFlags |= 1 << 1;
-        } else {
-            displayFlags &= ~(1 << 1);
-        }
-        setFieldEnability();
+        post(() -> {
+            if (flag) {
+                displayFlags |= 1 << 1;
+            } else {
+                displayFlags &= ~(1 << 1);
+            }
+            GoListener goListener = this.goListener;
+            SwingUtilities.invokeLater(() -> goListener.field(flag));
+            setFieldEnability();
+        });
     }
 
     /**
@@ -598,27 +746,28 @@ public class Gameboard {
      * real value is <code>-1</code>.
      */
     public void retract() {
-        if (inProgress) {
-            if (retractLeft == -1 || retractLeft > 0) {
-                if (players == 0) {
-                    if (player[whoseTurn] instanceof HumanPlayer) {
-                        retract(2);
-                    } else {
+        post(() -> {
+            if (inProgress) {
+                if (retractLeft == -1 || retractLeft > 0) {
+                    if (players == 0) {
+                        if (player[whoseTurn] instanceof HumanPlayer) {
+                            retract(2);
+                        } else {
+                            retract(1);
+                        }
+                    } else if (players == 1) {
                         retract(1);
                     }
-                } else if (players == 1) {
-                    retract(1);
-                }
-                if (retractLeft != -1) {
-                    retractLeft--;
+                    if (retractLeft != -1) {
+                        retractLeft--;
+                    }
                 }
+            } else {
+                retract(1);
             }
-        } else {
-            retract(1);
-        }
-        setRetractEnability();
-        setReretractEnability();
-        goListener.notifyRetract();
+            setRetractEnability();
+            setReretractEnability();
+        });
     }
 
     /**
@@ -630,11 +779,10 @@ public class Gameboard {
      * @param step the quantity of steps retraction causes
      */
     private void retract(int step) {
-        Chess[] lastMoves = history.getLastMoves(step);
-        if (lastMoves != null) {
-            for (Chess chess : lastMoves) {
-                Point p = chess.p;
-                chequer[p.x][p.y] = 0;
+        boolean reversable = history.getLastMoves(step, retraction);
+        if (reversable) {
+            for (int i = 0; i < step; i++) {
+                chequer.set(Move.getX(retraction[i]), Move.getY(retraction[i]), 0);
             }
         }
         if (inProgress) {
@@ -642,9 +790,15 @@ public class Gameboard {
             player[0].notifyRetraction(step, true);
             player[1].notifyRetraction(step, true);
         }
+        if (reversable) {
+            snapshot = snapshot.back(step);
+        }
         history.retract(step);
         reretractLeft++;
         System.out.println("Retract " + step + (step == 1 ? " move." : " moves."));
+        if (inProgress) {
+            request();
+        }
     }
 
     /**
@@ -658,20 +812,21 @@ public class Gameboard {
      * happens, quantity of reretraction becomes <code>0</code>.
      */
     public void reretract() {
-        if (reretractLeft > 0) {
-            if (inProgress) {
-                if (players == 0) {
-                    reretract(history.getLastRetractSteps());
-                } else if (players == 1) {
+        post(() -> {
+            if (reretractLeft > 0) {
+                if (inProgress) {
+                    if (players == 0) {
+                        reretract(history.getLastRetractSteps());
+                    } else if (players == 1) {
+                        reretract(1);
+                    }
+                } else {
                     reretract(1);
                 }
-            } else {
-                reretract(1);
+                setRetractEnability();
+                setReretractEnability();
             }
-            setRetractEnability();
-            setReretractEnability();
-            goListener.notifyRetract();
-        }
+        });
     }
 
     /**
@@ -683,12 +838,10 @@ public class Gameboard {
      * @param step the quantity of steps reretraction causes
      */
     private void reretract(int step) {
-        Chess[] lastRetracts = history.getLastRetracts(step);
-        if (lastRetracts != null) {
-            for (Chess chess : lastRetracts) {
-                Point p = chess.p;
-                int color = chess.color;
-                chequer[p.x][p.y] = (byte) color;
+        boolean inversable = history.getLastRetracts(step, retraction);
+        if (inversable) {
+            for (int i = 0; i < step; i++) {
+                chequer.set(Move.getX(retraction[i]), Move.getY(retraction[i]), Move.getColor(retraction[i]));
             }
         }
         if (inProgress) {
@@ -696,18 +849,28 @@ public class Gameboard {
             player[0].notifyRetraction(step, false);
             player[1].notifyRetraction(step, false);
         }
+        if (inversable) {
+            for (int i = 0; i < step; i++) {
+                snapshot = snapshot.make(retraction[i]);
+            }
+        }
         history.reretract(step);
         reretractLeft--;
         System.out.println("Reretract " + step + (step == 1 ? " move." : " moves."));
+        if (inProgress) {
+            request();
+        }
     }
 
     /**
      * Calls an admit in current match to end a match with the presenter's defeat.
      */
     public void admit() {
-        if (inProgress) {
-            notifyEnd(-whoseTurn - 1);
-        }
+        post(() -> {
+            if (inProgress) {
+                notifyEnd(-whoseTurn - 1);
+            }
+        });
     }
 
     /**
@@ -715,8 +878,12 @@ public class Gameboard {
      */
     private void setOrderEnability() {
         Boolean flag = (displayFlags & 1 << 0) >> 0 == 0;
-        order.setText(Constant.MTBTEXT_ORDER[flag ? 0 : 1]);
-        order.setEnabled(inProgress);
+        JButton order = this.order;
+        boolean enabled = inProgress;
+        SwingUtilities.invokeLater(() -> {
+            order.setText(Constant.MTBTEXT_ORDER[flag ? 0 : 1]);
+            order.setEnabled(enabled);
+        });
     }
 
     /**
@@ -724,18 +891,23 @@ public class Gameboard {
      */
     private void setFieldEnability() {
         Boolean flag = (displayFlags & 1 << 1) >> 1 == 0;
-        field.setText(Constant.MTBTEXT_FIELD[flag ? 0 : 1]);
-        field.setEnabled(inProgress);
+        JButton field = this.field;
+        boolean enabled = inProgress;
+        SwingUtilities.invokeLater(() -> {
+            field.setText(Constant.MTBTEXT_FIELD[flag ? 0 : 1]);
+            field.setEnabled(enabled);
+        });
     }
 
     /**
      * Sets the <code>Retract</code> button to correct enability.
      */
     private void setRetractEnability() {
+        String text;
         if (retractLeft >= 0 && inProgress) {
-            retract.setText(Constant.MTBTEXT_RETRACT[1] + retractLeft);
+            text = Constant.MTBTEXT_RETRACT[1] + retractLeft;
         } else {
-            retract.setText(Constant.MTBTEXT_RETRACT[0]);
+            text = Constant.MTBTEXT_RETRACT[0];
         }
         int stepBack;
         if (players == 1 || !inProgress) {
@@ -743,21 +915,29 @@ public class Gameboard {
         } else {
             stepBack = players == 0 ? 2 : 0;
         }
-        Chess[] lastMoves = history.getLastMoves(stepBack);
-        retract.setEnabled(lastMoves != null && (retractLeft == -1 || retractLeft > 0));
+        boolean enabled = history.getLastMoves(stepBack, retraction) && (retractLeft == -1 || retractLeft > 0);
+        JButton retract = this.retract;
+        SwingUtilities.invokeLater(() -> {
+            retract.setText(text);
+            retract.setEnabled(enabled);
+        });
     }
 
     /**
      * Sets the <code>Reretract</code> button to correct enability.
      */
     private void setReretractEnability() {
-        reretract.setEnabled(reretractLeft > 0);
+        JButton reretract = this.reretract;
+        boolean enabled = reretractLeft > 0;
+        SwingUtilities.invokeLater(() -> reretract.setEnabled(enabled));
     }
 
     /**
      * Sets the <code>Admit</code> button to correct enability.
      */
     private void setAdmitEnability() {
-        admit.setEnabled(inProgress && player[whoseTurn] instanceof HumanPlayer);
+        JButton admit = this.admit;
+        boolean enabled = inProgress && player[whoseTurn] instanceof HumanPlayer;
+        SwingUtilities.invokeLater(() -> admit.setEnabled(enabled));
     }
 }
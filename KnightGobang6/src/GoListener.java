@@ -1,6 +1,3 @@
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -8,9 +5,13 @@ import java.awt.event.MouseEvent;
 
 /**
  * <code>GoListener</code> reacts for mouse actions which happen on
- * <code>Chessboard</code>, and displays chess pieces (and maybe chess peices'
- * order) on it while extending <code>MouseAdapter</code> and implementing
+ * <code>Chessboard</code>, and asks it to display chess pieces (and maybe chess
+ * peices' order) while extending <code>MouseAdapter</code> and implementing
  * <code>ActionListener</code>.
+ * <p>
+ * It reads the situation only from the snapshot published by
+ * <code>Gameboard</code>, including the side to move out of a match, which is
+ * black after an even count of moves, and never paints by itself.
  *
  * @author Instant
  * @author Ego-Echo
@@ -20,26 +21,10 @@ import java.awt.event.MouseEvent;
  * @see History
  */
 public class GoListener extends MouseAdapter implements ActionListener {
-    /**
-     * Records the graphics of the <code>chessboard</code>.
-     */
-    private Graphics g;
     /**
      * Records the length of the chessboard in current match.
      */
     private static int len;
-    /**
-     * Records players' type in current match.
-     */
-    private static byte ply;
-    /**
-     * Records the chess color of the chessboard in current step.
-     */
-    private static boolean chs;
-    /**
-     * Records the chess' size of the chessboard in current match.
-     */
-    private static int css;
     /**
      * Records the grid's size of the chessboard in current match.
      */
@@ -47,19 +32,7 @@ public class GoListener extends MouseAdapter implements ActionListener {
     /**
      * Records if <code>GoListener</code> is in progress.
      */
-    private static boolean inProgress;
-    /**
-     * Records if order is displayed in present.
-     */
-    private static boolean orderFlag;
-    /**
-     * Records if field is displayed in present.
-     */
-    private static boolean fieldFlag;
-    /**
-     * Points to the current match.
-     */
-    private static History history;
+    private static volatile boolean inProgress;
     /**
      * Points to the current match.
      */
@@ -80,27 +53,10 @@ public class GoListener extends MouseAdapter implements ActionListener {
      */
     public void initVariable() {
         len = Variable.getLength();
-        ply = Variable.players;
-        chs = Variable.chess;
-        css = Variable.getChessSize();
         scl = Constant.BOARDWIDTH / (len + 1);
         inProgress = true;
-        history = KnightGobang6.history;
         gameboard = KnightGobang6.gameboard;
         chessboard = KnightGobang6.chessboard;
-        setGraphics(chessboard.getGraphics());
-        orderFlag = gameboard.displayFlags(true);
-        fieldFlag = gameboard.displayFlags(false);
-    }
-
-    /**
-     * Sets the graphics of <code>goListener</code> to a specific one, normally
-     * <code>chessboard</code>'s graphics.
-     *
-     * @param g the appointed graphics
-     */
-    private void setGraphics(Graphics g) {
-        this.g = g;
     }
 
     /**
@@ -115,24 +71,15 @@ public class GoListener extends MouseAdapter implements ActionListener {
 
     /**
      * Notifies <code>GoListener</code> to make a move with appointed point and
-     * color.
+     * color, after the snapshot is published. Only the grids the move changes are
+     * painted again by <code>chessboard</code> on the event dispatch thread.
      *
      * @param p     the point of the chess piece
      * @param color the color of the chess piece: <code>1</code> for black,
      *              <code>2</code> for white
      */
     public void notifyMove(Point p, int color) {
-        move(p.p2Pos(), color == 1 ? true : false);
-    }
-
-    /**
-     * Notifies <code>GoListener</code> that a retraction or reretraction has
-     * happened.
-     */
-    public void notifyRetract() {
-        if (!gameboard.isInProgress() || ply == 1) {
-            chs = !chs;
-        }
+        chessboard.repaintPoint(p);
     }
 
     @Override
@@ -155,10 +102,7 @@ public class GoListener extends MouseAdapter implements ActionListener {
                 }
             } else {
                 if (moveable(pos)) {
-                    boolean clr = chs;
-                    gameboard.notifyMove(pos.pos2P(), clr);
-                    chs = !chs;
-                    System.out.println(pos.toString(false) + (clr ? ", Black;" : ", White;"));
+                    gameboard.notifyMove(pos.pos2P(), gameboard.getSnapshot().step % 2 == 0);
                 }
             }
         }
@@ -173,26 +117,7 @@ public class GoListener extends MouseAdapter implements ActionListener {
      */
     private boolean moveable(Point pos) {
         Point p = pos.pos2P();
-        if (!p.checkRange() || gameboard.isFilled(p)) {
-            return false;
-        } else {
-            return gameboard.isKnight(p) || history.getCurrentStep() == 0;
-        }
-    }
-
-    /**
-     * Makes a move of chess piece with appointed position and color
-     *
-     * @param pos   the position where to move the chess piece
-     * @param color the color of the chess piece, <code>true</code> for black,
-     *              <code>false</code> for white
-     */
-    private void move(Point pos, boolean color) {
-        /* to be finished */
-        paintPiece(pos, color);
-        // Point p = pos.pos2P();
-        // KnightGobang6.history.notifyMove(p, color ? 1 : 2);
-        // KnightGobang6.gameboard.notifyMove(p, color);
+        return p.checkRange(len) && gameboard.getSnapshot().isLegal(p.x, p.y);
     }
 
     /**
@@ -205,7 +130,6 @@ public class GoListener extends MouseAdapter implements ActionListener {
      *             to hide them
      */
     public void order(boolean flag) {
-        orderFlag = flag;
         chessboard.order(flag);
     }
 
@@ -219,61 +143,6 @@ public class GoListener extends MouseAdapter implements ActionListener {
      *             reachable, <code>false</code> to hide them
      */
     public void field(boolean flag) {
-        fieldFlag = flag;
         chessboard.field(flag);
     }
-
-    /**
-     * Paints the chess piece onto <code>chessboard</code> with appointed position
-     * and color.
-     *
-     * @param pos   the position where to paint the chess piece
-     * @param color the color of the chess piece, <code>true</code> for black,
-     *              <code>false</code> for white
-     */
-    private void paintPiece(Point pos, boolean color) {
-        Color clr = color ? Color.BLACK : Color.WHITE;
-        g.setColor(clr);
-        g.fillOval(scl * pos.x - css, scl * pos.y - css, 2 * css, 2 * css);
-        if (orderFlag) {
-            int step = history.getCurrentStep();
-            paintOrder(pos, step, !color);
-        }
-        if (fieldFlag) {
-            for (Diagram dia : Diagram.values()) {
-                Point pp = pos.pos2P().step(dia, 1);
-                if (pp != null && moveable(pp.p2Pos())) {
-                    paintField(pp.p2Pos());
-                }
-            }
-        }
-    }
-
-    /**
-     * Paints the chess piece's order onto <code>chessboard</code> with appointed
-     * position and color.
-     *
-     * @param pos   the position where to paint the chess piece's order
-     * @param index the order of the chess piece
-     * @param color the color of the chess piece, <code>true</code> for black,
-     *              <code>false</code> for white
-     */
-    private void paintOrder(Point pos, int index, boolean color) {
-        Color clr = color ? Color.BLACK : Color.WHITE;
-        g.setColor(clr);
-        int div = (index >= 100) ? 4 : (index >= 10) ? 2 : 0;
-        g.setFont(Constant.fontCons(1, Font.BOLD, Constant.SCALE[0] - div));
-        g.drawString(Integer.toString(index), scl * pos.x - 4 - div, scl * pos.y + 4);
-    }
-
-    /**
-     * Paints the chess piece's field onto <code>chessboard</code> with appointed
-     * position.
-     *
-     * @param pos the position where to paint the chess piece's field
-     */
-    private void paintField(Point pos) {
-        g.setColor(Constant.CHESSFIELDCOLOR);
-        g.fillRect(scl * pos.x - css / 2, scl * pos.y - css / 2, css, css);
-    }
 }
@@ -4,8 +4,10 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * <code>History</code> records the absolute chess piece moves and provides move
@@ -62,9 +64,10 @@ public class History {
      * admitting defeat,<code>0</code> for an abend, <code>1</code> for black
      * victory, <code>2</code> for white victory, <code>3</code> for draw match.
      */
-    private ArrayList<Chess> intactMoveHistory;
+    private MoveList intactMoveHistory;
     /**
-     * Records the chess piece moves.
+     * Records the chess piece moves packed as <code>Move</code>, with the
+     * retracted ones after current step, <code>Move.NONE</code> for none.
      * <p>
      * For normal chess, its color means:
      * <p>
@@ -76,7 +79,7 @@ public class History {
      * admitting defeat,<code>0</code> for an abend, <code>1</code> for black
      * victory, <code>2</code> for white victory, <code>3</code> for draw match.
      */
-    private Chess[] moveHistory;
+    private int[] moveHistory;
     /**
      * Records the steps for each retractions.
      */
@@ -105,26 +108,39 @@ public class History {
     }
 
     /**
-     * Initializes <code>History</code>'s basic parameters.
+     * Initializes <code>History</code>'s basic parameters with the context of the
+     * new match, the gameboard <code>gameboard</code> and the chessboard
+     * <code>chessboard</code>.
+     *
+     * @param players    <code>-1</code> for EVE, <code>0</code> for PVE,
+     *                   <code>1</code> for PVP
+     * @param chess      <code>true</code> for black, <code>false</code> for white
+     * @param difficulty <code>0</code> for normal, <code>1</code> for hard,
+     *                   <code>2</code> for impossible
+     * @param length     the chessboard's length
+     * @param gameboard  the gameboard of the match
+     * @param chessboard the chessboard of the match
      */
-    public void initVariable() {
-        this.players = Variable.players;
-        this.chess = Variable.chess;
-        this.difficulty = Variable.difficulty;
+    public void initVariable(byte players, boolean chess, byte difficulty, int length, Gameboard gameboard,
+            Chessboard chessboard) {
+        this.players = players;
+        this.chess = chess;
+        this.difficulty = difficulty;
         this.intactStep = 0;
         this.step = 0;
-        this.length = Variable.getLength();
+        this.length = length;
         this.retractLeft = Gameboard.RETRACT_LEFT[difficulty];
-        this.intactMoveHistory = new ArrayList<>();
-        this.moveHistory = new Chess[length * length];
+        this.intactMoveHistory = new MoveList(length * length + 1);
+        this.moveHistory = new int[length * length + 1];
+        Arrays.fill(moveHistory, Move.NONE);
         this.retractStepsHistory = new ArrayList<>();
         if (retractLeft >= 0) {
             this.retractHistory = new int[retractLeft];
         } else if (retractLeft == -1) {
             this.retractHistory = new int[100];
         }
-        this.chessboard = KnightGobang6.chessboard;
-        this.gameboard = KnightGobang6.gameboard;
+        this.chessboard = chessboard;
+        this.gameboard = gameboard;
         // this.goListener = KnightGobang6.goListener;
     }
 
@@ -139,17 +155,26 @@ public class History {
      */
     public void notifyMove(Point p, int move) {
         if (move == 1 || move == 2) {
-            Chess chess = new Chess(p, move);
-            intactMoveHistory.add(chess);
-            intactStep++;
-            moveHistory[step] = chess;
-            step++;
+            notifyMove(Move.of(p, move));
         }
     }
 
+    /**
+     * Notifies <code>History</code> the packed move <code>move</code> of each chess
+     * piece after its move.
+     *
+     * @param move the packed move as <code>Move</code> of a black or white move
+     */
+    public void notifyMove(int move) {
+        intactMoveHistory.add(move);
+        intactStep++;
+        moveHistory[step] = move;
+        step++;
+    }
+
     /**
      * Notifies <code>History</code> of current match's end with <code>index</code>,
-     * while showing a notifying <code>JOptionPane</code> to user.
+     * while showing a notifying <code>JOptionPane</code> to user later.
      *
      * @param index current match's end index: <code>-2</code> for white admitting
      *              defeat, <code>-1</code> for black admitting
@@ -158,10 +183,10 @@ public class History {
      *              draw match.
      */
     public void notifyEnd(int index) {
-        Chess chess = new Chess(null, index);
-        intactMoveHistory.add(chess);
+        int move = Move.of(null, index);
+        intactMoveHistory.add(move);
         intactStep++;
-        moveHistory[step] = chess;
+        moveHistory[step] = move;
         step++;
         if (players == 0 && index != 0) {
             String message = "";
@@ -174,12 +199,23 @@ public class History {
             } else if (index == 3) {
                 message = Constant.DRWTEXT[seed];
             }
-            JOptionPane.showMessageDialog(null, message);
+            showMessage(message);
         } else if (players == -1 || index == 0 || players == 1) {
-            JOptionPane.showMessageDialog(null, Constant.ENDTEXT[index + 2]);
+            showMessage(Constant.ENDTEXT[index + 2]);
         }
     }
 
+    /**
+     * Shows a notifying <code>JOptionPane</code> with the message
+     * <code>message</code> on the event dispatch thread, which leaves the event
+     * loop of <code>Gameboard</code> not waiting for the user.
+     *
+     * @param message the message to show
+     */
+    private static void showMessage(String message) {
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, message));
+    }
+
     /**
      * Gets real step(s) in current match.
      *
@@ -225,7 +261,7 @@ public class History {
         }
         Chess[] chessSequence = new Chess[step];
         for (int i = 0; i < step; i++) {
-            chessSequence[i] = moveHistory[i];
+            chessSequence[i] = new Chess(moveHistory[i]);
         }
         return chessSequence;
     }
@@ -243,11 +279,29 @@ public class History {
             return null;
         }
         for (int i = 0; i < stepBack; i++) {
-            lastMoves[i] = moveHistory[step - i - 1];
+            lastMoves[i] = new Chess(moveHistory[step - i - 1]);
         }
         return lastMoves;
     }
 
+    /**
+     * Gets the last <code>stepBack</code> moves of the chess pieces into
+     * <code>moves</code> as <code>getLastMoves(int)</code>, without any object.
+     *
+     * @param stepBack the step(s) to move back
+     * @param moves    the array to receive the packed moves, the last one first
+     * @return <code>true</code> if reversable, <code>false</code> otherwise
+     */
+    public boolean getLastMoves(int stepBack, int[] moves) {
+        if (stepBack > step || stepBack <= 0) {
+            return false;
+        }
+        for (int i = 0; i < stepBack; i++) {
+            moves[i] = moveHistory[step - i - 1];
+        }
+        return true;
+    }
+
     /**
      * Makes a retraction in current match.
      *
@@ -257,7 +311,7 @@ public class History {
         for (int i = 0; i < stepBack; i++) {
             step--;
             intactStep++;
-            intactMoveHistory.add(new Chess(null, 0));
+            intactMoveHistory.add(Move.of(null, 0));
         }
         int currentRetractLeft = gameboard.getCurrentRetractLeft();
         if (currentRetractLeft > 0) {
@@ -265,7 +319,9 @@ public class History {
         } else if (currentRetractLeft == -1) {
             retractStepsHistory.add(stepBack);
         }
-        chessboard.repaint();
+        for (int i = Math.max(0, -step); i < stepBack; i++) {
+            chessboard.repaintPoint(Move.toPoint(moveHistory[step + i]));
+        }
     }
 
     /**
@@ -278,15 +334,34 @@ public class History {
      */
     public Chess[] getLastRetracts(int stepFore) {
         Chess[] lastRetracts = new Chess[stepFore];
-        if (moveHistory[step + stepFore - 1] == null || stepFore <= 0) {
+        if (moveHistory[step + stepFore - 1] == Move.NONE || stepFore <= 0) {
             return null;
         }
         for (int i = 0; i < stepFore; i++) {
-            lastRetracts[i] = moveHistory[step + i];
+            lastRetracts[i] = new Chess(moveHistory[step + i]);
         }
         return lastRetracts;
     }
 
+    /**
+     * Gets the last <code>stepFore</code> retracts of the chess pieces into
+     * <code>moves</code> as <code>getLastRetracts(int)</code>, without any
+     * object.
+     *
+     * @param stepFore the step to reretract back
+     * @param moves    the array to receive the packed moves in order
+     * @return <code>true</code> if inversable, <code>false</code> otherwise
+     */
+    public boolean getLastRetracts(int stepFore, int[] moves) {
+        if (stepFore <= 0 || step + stepFore > moveHistory.length || moveHistory[step + stepFore - 1] == Move.NONE) {
+            return false;
+        }
+        for (int i = 0; i < stepFore; i++) {
+            moves[i] = moveHistory[step + i];
+        }
+        return true;
+    }
+
     /**
      * Makes a reretraction in current match.
      *
@@ -294,11 +369,13 @@ public class History {
      */
     public void reretract(int stepFore) {
         for (int i = 0; i < stepFore; i++) {
-            intactMoveHistory.add(new Chess(null, -1));
+            intactMoveHistory.add(Move.of(null, -1));
             intactStep++;
             step++;
         }
-        chessboard.repaint();
+        for (int i = 1; i <= Math.min(stepFore, step); i++) {
+            chessboard.repaintPoint(Move.toPoint(moveHistory[step - i]));
+        }
     }
 
     /**
@@ -320,10 +397,10 @@ public class History {
         String difficulty = Integer.toString(this.difficulty);
         content.append(rectext[4] + difficulty + "\n\n" + rectext[5] + "\n");
         for (int i = 0; i < step - 1; i++) {
-            Chess css = intactMoveHistory.get(i);
+            Chess css = new Chess(intactMoveHistory.get(i));
             content.append(css.toString(true, false) + "\n");
         }
-        content.append("\n" + rectext[6] + intactMoveHistory.get(step - 1).toString(true, true) + "\n");
+        content.append("\n" + rectext[6] + new Chess(intactMoveHistory.get(step - 1)).toString(true, true) + "\n");
         String filePath = "../rec/REC_" + currentTime.toString() + ".txt";
         try {
             File recordFile = new File(filePath);
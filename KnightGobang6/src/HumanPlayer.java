@@ -1,3 +1,5 @@
+import java.util.concurrent.CompletableFuture;
+
 /**
  * In <strong>Knight Gobang 6</strong>, a <code>HumanPlayer</code> participates
  * in a match and decides how to play in a human's POV.
@@ -23,15 +25,10 @@ public class HumanPlayer implements Player {
      */
     public final int color;
     /**
-     * Records the current point<code>p</code> where <code>HumanPlayer</code>
-     * decides
-     * to move.
-     */
-    private Point p;
-    /**
-     * Points to the current gameboard.
+     * Records the request for the current move, which is completed when the user
+     * decides where to move.
      */
-    private final Gameboard gameboard;
+    private volatile CompletableFuture<Integer> request;
 
     /**
      * Constructs a new <code>HumanPlayer</code> with its chess side
@@ -42,8 +39,7 @@ public class HumanPlayer implements Player {
      */
     public HumanPlayer(int color) {
         this.color = color;
-        this.p = null;
-        this.gameboard = KnightGobang6.gameboard;
+        this.request = CompletableFuture.completedFuture(Move.NONE);
     }
 
     /**
@@ -60,6 +56,19 @@ public class HumanPlayer implements Player {
     public void notifyMove(Point p, int color) {
     }
 
+    /**
+     * Notifies <code>HumanPlayer</code> the packed move <code>move</code> of each
+     * chess piece after it moves.
+     * <p>
+     * This method does nothing as <code>notifyMove(Point, int)</code>, without
+     * changing the move to its point.
+     *
+     * @param move the packed move as <code>Move</code>
+     */
+    @Override
+    public void notifyMove(int move) {
+    }
+
     /**
      * Notifies <code>HumanPlayer</code> to retract or to retraction in specific
      * step(s).
@@ -74,38 +83,27 @@ public class HumanPlayer implements Player {
     }
 
     /**
-     * Sets the current point <code>p</code> to a specific point.
+     * Decides to move at the point <code>p</code>, which completes the request
+     * for the current move. It does nothing if no move is requested.
      *
      * @param p the point
      */
     public void move(Point p) {
-        this.p = p;
+        if (p == null) {
+            throw new IllegalArgumentException("A null point in HumanPlayer.move(Point)!");
+        }
+        request.complete(Move.of(p, color));
     }
 
     /**
-     * Waits for user's mouse action, according to which, returns where to move the
-     * chess piece.
+     * Requests user's mouse action, according to which, the returned future is
+     * completed with where to move the chess piece.
+     *
+     * @return the future of the packed move
      */
     @Override
-    public void play() {
-        synchronized (this) {
-            try {
-                while (p == null) {
-                    wait(50);
-                }
-            } catch (InterruptedException e) {
-                if (gameboard.isRetractionInterrupted()) {
-                    return;
-                } else {
-                    e.printStackTrace();
-                }
-            }
-        }
-        Point currentP = p;
-        p = null;
-        if (currentP == null) {
-            throw new IllegalArgumentException("A null point in HumanPlayer.play()!");
-        }
-        gameboard.notifyMove(currentP, color == 1 ? true : false);
+    public CompletableFuture<Integer> requestMove() {
+        request = new CompletableFuture<>();
+        return request;
     }
 }
@@ -27,15 +27,16 @@ public class KnightGobang6 {
 
     public static void main(String[] args) throws Exception {
         System.out.println("Hello, World!");
-        gameboard = new Gameboard();
+        gameboard = Gameboard.create();
         history = new History();
         goListener = new GoListener();
         UI.initVariable();
         chessboard = UI.chessboard;
-        history.initVariable();
+        history.initVariable(Variable.players, Variable.chess, Variable.difficulty, Variable.getLength(), gameboard,
+                chessboard);
         goListener.initVariable();
-        gameboard.initVariable();
-        gameboard.isInited = true;
+        gameboard.initVariable(Variable.players, Variable.chess, Variable.difficulty, Variable.getLength(),
+                Variable.threads, Variable.ponder, history, goListener, UI.buttonList);
     }
 
     /**
@@ -46,10 +47,11 @@ public class KnightGobang6 {
         goListener = new GoListener();
         UI.initVariable();
         chessboard = UI.chessboard;
-        history.initVariable();
+        history.initVariable(Variable.players, Variable.chess, Variable.difficulty, Variable.getLength(), gameboard,
+                chessboard);
         goListener.initVariable();
-        gameboard.initVariable();
-        gameboard.isInited = true;
+        gameboard.initVariable(Variable.players, Variable.chess, Variable.difficulty, Variable.getLength(),
+                Variable.threads, Variable.ponder, history, goListener, UI.buttonList);
         System.out.println("New match prepared.");
     }
 }
@@ -1,3 +1,5 @@
+import java.util.concurrent.CompletableFuture;
+
 /**
  * In <strong>Knight Gobang 6</strong>, a <code>Player</code> participates in a
  * match and decides how to play.
@@ -21,6 +23,17 @@ public interface Player {
      */
     void notifyMove(Point p, int color);
 
+    /**
+     * Notifies <code>Player</code> the packed move <code>move</code> of each chess
+     * piece after it moves, which is the same as
+     * <code>notifyMove(Point, int)</code> by default.
+     *
+     * @param move the packed move as <code>Move</code>
+     */
+    default void notifyMove(int move) {
+        notifyMove(Move.toPoint(move), Move.getColor(move));
+    }
+
     /**
      * Notifies <code>Player</code> to retract or to retraction in specific step(s).
      *
@@ -30,7 +43,15 @@ public interface Player {
     void notifyRetraction(int step, boolean flag);
 
     /**
-     * Notifies <code>Gameboard</code> where to move the chess piece.
+     * Asks <code>Player</code> where to move the chess piece on its turn, and
+     * returns at once.
+     * <p>
+     * The returned future is completed with the packed move as <code>Move</code>
+     * by whoever decides it, such as the mouse handler or the engine. A
+     * retraction or the end of the match cancels it, after which the decision is
+     * dropped.
+     *
+     * @return the future of the packed move
      */
-    void play();
+    CompletableFuture<Integer> requestMove();
 }
@@ -0,0 +1,207 @@
+/**
+ * <code>Snapshot</code> records an immutable situation of a match, which is the
+ * position on the chessboard and the sequence of moves to it.
+ * <p>
+ * A move makes a new <code>Snapshot</code> out of the former one and shares
+ * most of it: the sequence is linked to the former <code>Snapshot</code>, and
+ * only the changed row of the position is copied. A retraction goes back to a
+ * former <code>Snapshot</code> without any copy.
+ * <p>
+ * Each <code>Snapshot</code> also keeps the field, the bitset of the blank grids
+ * reachable via a knight move, which a move updates in the <code>8</code> grids
+ * around it and a retraction takes back with the former <code>Snapshot</code>,
+ * so that the legality of a grid is read at once.
+ * <p>
+ * <code>Gameboard</code> publishes a <code>Snapshot</code> after each change,
+ * and <code>Chessboard</code> and <code>GoListener</code> read only from it, so
+ * that rendering never races the match.
+ *
+ * @author Instant
+ * @author Ego-Echo
+ * @see Gameboard
+ * @see Chessboard
+ * @see Move
+ */
+public class Snapshot {
+    /**
+     * Records the chessboard's length.
+     */
+    public final int length;
+    /**
+     * Records the count of moves to the situation.
+     */
+    public final int step;
+    /**
+     * Records the last move packed as <code>Move</code>, <code>Move.NONE</code>
+     * for none.
+     */
+    public final int move;
+    /**
+     * Points to the <code>Snapshot</code> before the last move, <code>null</code>
+     * for none.
+     */
+    private final Snapshot previous;
+    /**
+     * Records the grids of the position in rows, each of which is the order of
+     * the chess piece from <code>1</code> shifted left by <code>2</code> with its
+     * color, <code>0</code> for a blank. The rows are shared with the other
+     * <code>Snapshot</code>s and never changed.
+     */
+    private final int[][] grid;
+    /**
+     * Records the field in rows, each bit of which is set for a blank grid
+     * reachable via a knight move from any chess piece. It is never changed.
+     */
+    private final long[] field;
+
+    /**
+     * Constructs a new <code>Snapshot</code> from the rows <code>grid</code> and
+     * the field <code>field</code>.
+     *
+     * @param length   the chessboard's length
+     * @param step     the count of moves
+     * @param move     the last packed move
+     * @param previous the <code>Snapshot</code> before the last move
+     * @param grid     the rows of the position
+     * @param field    the rows of the field
+     */
+    private Snapshot(int length, int step, int move, Snapshot previous, int[][] grid, long[] field) {
+        this.length = length;
+        this.step = step;
+        this.move = move;
+        this.previous = previous;
+        this.grid = grid;
+        this.field = field;
+    }
+
+    /**
+     * Returns a <code>Snapshot</code> of an empty chessboard with the length
+     * <code>length</code>.
+     *
+     * @param length the chessboard's length, no more than <code>63</code>
+     * @return the empty <code>Snapshot</code>
+     */
+    public static Snapshot empty(int length) {
+        if (length <= 0 || length >= 64) {
+            throw new IllegalArgumentException("Illegal length " + length + " in Snapshot.empty(int)!");
+        }
+        return new Snapshot(length, 0, Move.NONE, null, new int[length][length], new long[length]);
+    }
+
+    /**
+     * Returns the <code>Snapshot</code> after the packed move <code>move</code>,
+     * which shares all the rows but the changed one. The field is updated only in
+     * the grid of the move and the <code>8</code> grids around it.
+     *
+     * @param move the packed move as <code>Move</code>
+     * @return the new <code>Snapshot</code>
+     */
+    public Snapshot make(int move) {
+        int x = Move.getX(move);
+        int y = Move.getY(move);
+        if (Move.getIndex(move) == Move.NULL_INDEX || x >= length || y >= length) {
+            throw new IllegalArgumentException("Illegal move " + move + " in Snapshot.make(int)!");
+        }
+        int[][] rows = grid.clone();
+        rows[x] = rows[x].clone();
+        rows[x][y] = (step + 1) << 2 | Move.getColor(move);
+        long[] knights = field.clone();
+        knights[x] &= ~(1L << y);
+        for (Diagram dia : Diagram.get8Diagrams()) {
+            int nx = x + dia.x;
+            int ny = y + dia.y;
+            if (nx >= 0 && nx < length && ny >= 0 && ny < length && rows[nx][ny] == 0) {
+                knights[nx] |= 1L << ny;
+            }
+        }
+        return new Snapshot(length, step + 1, move, this, rows, knights);
+    }
+
+    /**
+     * Returns the <code>Snapshot</code> <code>count</code> move(s) before, which
+     * is a former <code>Snapshot</code> itself.
+     *
+     * @param count the count of moves to go back
+     * @return the former <code>Snapshot</code>
+     */
+    public Snapshot back(int count) {
+        if (count < 0 || count > step) {
+            throw new IllegalArgumentException("Illegal count " + count + " in Snapshot.back(int)!");
+        }
+        Snapshot snapshot = this;
+        for (int i = 0; i < count; i++) {
+            snapshot = snapshot.previous;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the color of the grid <code>(x, y)</code>.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return <code>0</code> for a blank, <code>1</code> for black,
+     *         <code>2</code> for white, <code>-1</code> if it is out of range
+     */
+    public int get(int x, int y) {
+        if (x < 0 || x >= length || y < 0 || y >= length) {
+            return -1;
+        }
+        return grid[x][y] & 3;
+    }
+
+    /**
+     * Returns the order of the chess piece on the grid <code>(x, y)</code>, from
+     * <code>1</code>.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the order, <code>0</code> for a blank or out of range
+     */
+    public int getOrder(int x, int y) {
+        if (x < 0 || x >= length || y < 0 || y >= length) {
+            return 0;
+        }
+        return grid[x][y] >>> 2;
+    }
+
+    /**
+     * Checks if the grid <code>(x, y)</code> is a blank reachable via a knight
+     * move from any chess piece, which is in the field.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return <code>true</code> if it is in the field, <code>false</code>
+     *         otherwise
+     */
+    public boolean isKnight(int x, int y) {
+        return x >= 0 && x < length && y >= 0 && y < length && (field[x] >>> y & 1) != 0;
+    }
+
+    /**
+     * Checks if a chess piece can be placed on the grid <code>(x, y)</code>,
+     * which is a blank reachable via a knight move, or any grid for the first
+     * move.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return <code>true</code> if it is legal, <code>false</code> otherwise
+     */
+    public boolean isLegal(int x, int y) {
+        return step == 0 ? get(x, y) == 0 : isKnight(x, y);
+    }
+
+    /**
+     * Returns the sequence of moves to the situation packed as <code>Move</code>,
+     * in order.
+     *
+     * @return the packed moves
+     */
+    public int[] getMoves() {
+        int[] moves = new int[step];
+        for (Snapshot snapshot = this; snapshot.step > 0; snapshot = snapshot.previous) {
+            moves[snapshot.step - 1] = snapshot.move;
+        }
+        return moves;
+    }
+}
@@ -648,8 +648,12 @@ public class UI {
                             String[] toolTexts = Constant.MTBTEXT_START;
                             String toolText = toolButton.getText();
                             if (toolText == toolTexts[0]) {
+                                mainFrame.dispose();
+                                KnightGobang6.newMatch();
                                 gameboard.start(true);
                             } else if (toolText == toolTexts[1]) {
+                                mainFrame.dispose();
+                                KnightGobang6.newMatch();
                                 gameboard.start(false);
                             }
                         }
@@ -24,6 +24,19 @@ public abstract class Variable {
      * only works when the match is in PVE or PVP type.
      */
     public static byte difficulty = 0;
+    /**
+     * Records the count of threads <code>RobotPlayer</code> searches with, which
+     * is <code>1</code> for a single-threaded search by default, until the
+     * speedup of the helpers is measured. The count of available processors is
+     * the most to be useful.
+     */
+    public static int threads = 1;
+    /**
+     * Records if <code>RobotPlayer</code> searches the predicted replies on the
+     * other side's time: <code>true</code> for pondering, <code>false</code> for
+     * idling.
+     */
+    public static boolean ponder = true;
     /**
      * Records the volumn level of the music: <code>0.0</code> for the minimum,
      * <code>1.0</code> for maximum.